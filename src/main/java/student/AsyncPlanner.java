@@ -0,0 +1,146 @@
+package student;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Asynchronous front for one user's Planner and game list.
+ *
+ * Every call is queued behind the previous call on the same AsyncPlanner, so
+ * filters still build on each other in the order they were made, while the
+ * work itself runs on the shared PlannerExecutor. No call blocks the caller.
+ */
+public class AsyncPlanner implements IAsyncPlanner {
+
+  private final Planner planner;
+  private final IGameList gameList;
+  private final PlannerExecutor executor;
+  /** Completes when the most recently queued call has finished. */
+  private CompletableFuture<?> tail;
+
+  /**
+   * Constructor for the AsyncPlanner.
+   *
+   * @param planner  the session's planner; it must not be used directly while this is in use
+   * @param gameList the session's game list
+   * @param executor runs the work, shared by every session
+   */
+  public AsyncPlanner(Planner planner, IGameList gameList, PlannerExecutor executor) {
+    this.planner = planner;
+    this.gameList = gameList;
+    this.executor = executor;
+    this.tail = CompletableFuture.completedFuture(null);
+  }
+
+  @Override
+  public CompletableFuture<List<BoardGame>> filter(String filter) {
+    return filter(filter, GameData.NAME, true);
+  }
+
+  @Override
+  public CompletableFuture<List<BoardGame>> filter(String filter, GameData sortOn) {
+    return filter(filter, sortOn, true);
+  }
+
+  @Override
+  public CompletableFuture<List<BoardGame>> filter(String filter, GameData sortOn,
+      boolean ascending) {
+    return filter(filter, SortSpec.of(sortOn, ascending));
+  }
+
+  /**
+   * Filters the board games, sorted on several columns.
+   *
+   * @param filter The filter to apply to the board games.
+   * @param sortOn The columns and directions to sort on.
+   * @return completes with the games that match the filter
+   * @see Planner#filter(String, SortSpec)
+   */
+  public CompletableFuture<List<BoardGame>> filter(String filter, SortSpec sortOn) {
+    return enqueue(() -> executor.filter(planner, filter, sortOn));
+  }
+
+  /**
+   * Filters the board games, stopping once the query context runs out. The
+   * query is not shared with identical queries from other sessions.
+   *
+   * @param filter  The filter to apply to the board games.
+   * @param sortOn  The columns and directions to sort on.
+   * @param context deadline and cancellation token of the query
+   * @return completes with the games that match the filter, or exceptionally
+   *         with a QueryTimeoutException
+   * @see Planner#filter(String, SortSpec, QueryContext)
+   */
+  public CompletableFuture<List<BoardGame>> filter(String filter, SortSpec sortOn,
+      QueryContext context) {
+    return enqueue(() -> executor.submit(
+        () -> planner.filter(filter, sortOn, context).collect(Collectors.toList())));
+  }
+
+  @Override
+  public CompletableFuture<Void> reset() {
+    return enqueue(() -> executor.submit(() -> {
+      planner.reset();
+      return null;
+    }));
+  }
+
+  /**
+   * Adds games from the current filter result to the game list, numbered as
+   * the last filter call sorted them.
+   *
+   * @param str the games to add, as for IGameList.addToList
+   * @return completes once added, or exceptionally if the selection is not valid
+   * @see IGameList#addToList(String, java.util.stream.Stream)
+   */
+  public CompletableFuture<Void> addToList(String str) {
+    return enqueue(() -> executor.submit(() -> {
+      if (gameList instanceof GameList) {
+        ((GameList) gameList).addToList(str, planner.getLastResult());
+      } else {
+        gameList.addToList(str, planner.filter(""));
+      }
+      return null;
+    }));
+  }
+
+  /**
+   * Removes games from the game list.
+   *
+   * @param str the games to remove, as for IGameList.removeFromList
+   * @return completes once removed, or exceptionally if the selection is not valid
+   * @see IGameList#removeFromList(String)
+   */
+  public CompletableFuture<Void> removeFromList(String str) {
+    return enqueue(() -> executor.submit(() -> {
+      gameList.removeFromList(str);
+      return null;
+    }));
+  }
+
+  /**
+   * Gets the names of the games in the game list.
+   *
+   * @return completes with the names, as IGameList.getGameNames gives them
+   */
+  public CompletableFuture<List<String>> getGameNames() {
+    return enqueue(() -> executor.submit(gameList::getGameNames));
+  }
+
+  /**
+   * Queues a call behind the previous one. It starts once the previous call
+   * has finished, whether or not that call failed.
+   *
+   * @param call starts the call's work
+   * @param <T>  the result type
+   * @return completes with the call's result
+   */
+  private synchronized <T> CompletableFuture<T> enqueue(Supplier<CompletableFuture<T>> call) {
+    CompletableFuture<T> next = tail.handle((result, error) -> null)
+        .thenComposeAsync(ignored -> call.get(), executor.tasks());
+    tail = next;
+    return next;
+  }
+}
@@ -19,8 +19,9 @@ public final class BGArenaPlanner {
      * @param args command line arguments - not used at this time.
      */
     public static void main(String[] args) {
-        IPlanner planner = new Planner(GamesLoader.loadGamesFile(DEFAULT_COLLECTION));
-        IGameList list = new GameList();
+        GameCatalog catalog = new GameCatalog(GamesLoader.loadGamesFile(DEFAULT_COLLECTION));
+        IPlanner planner = new Planner(catalog);
+        IGameList list = new GameList(catalog);
         ConsoleApp app = new ConsoleApp(list, planner);
         app.start();
     }
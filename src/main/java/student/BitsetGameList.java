@@ -0,0 +1,345 @@
+package student;
+
+import java.io.IOException;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Game list that stores membership as a BitSet over catalog ordinals, so a
+ * list costs one bit per catalog game however many games it holds, and
+ * lists over the same catalog can be combined a word at a time.
+ *
+ * Selections are read as GameList reads them, but only games in the catalog
+ * can be listed. Games are returned in the order the catalog sorts names,
+ * ignoring case, with equal names in id order.
+ */
+public final class BitsetGameList implements IGameList {
+
+  private final GameCatalog catalog;
+  private final BitSet members;
+
+  /**
+   * Constructor for an empty BitsetGameList.
+   *
+   * @param catalog the full board game collection the list selects from
+   */
+  public BitsetGameList(GameCatalog catalog) {
+    this(catalog, new BitSet(catalog.size()));
+  }
+
+  /**
+   * Constructor for a list with the given members.
+   *
+   * @param catalog the full board game collection
+   * @param members bitmap of listed ordinals, owned by the list
+   */
+  private BitsetGameList(GameCatalog catalog, BitSet members) {
+    this.catalog = catalog;
+    this.members = members;
+  }
+
+  /**
+   * Gets the contents of a list, as list of names (Strings) in ascending order
+   * ignoring case.
+   *
+   * @return the list of game names in ascending order ignoring case.
+   */
+  @Override
+  public List<String> getGameNames() {
+    return getGames().stream().map(BoardGame::getName).collect(Collectors.toList());
+  }
+
+  /**
+   * Removes all games in the list (clears it out completely).
+   */
+  @Override
+  public void clear() {
+    members.clear();
+  }
+
+  /**
+   * Counts/returns the number of games in the list.
+   *
+   * @return the number of games in the list.
+   */
+  @Override
+  public int count() {
+    return members.cardinality();
+  }
+
+  /**
+   * Checks if a game is in the list.
+   *
+   * @param game the game to look for
+   * @return true if the game is listed
+   */
+  public boolean contains(BoardGame game) {
+    int ordinal = catalog.ordinalOf(game);
+    return ordinal >= 0 && members.get(ordinal);
+  }
+
+  /**
+   * Saves the list of games to a file, one name per line in the same order as
+   * getGameNames, replacing the file atomically. Failures are reported rather
+   * than thrown.
+   *
+   * @param filename The name of the file to save the list to.
+   */
+  @Override
+  public void saveGame(String filename) {
+    try {
+      GameExporter.writeLines(getGameNames().stream(), Path.of(filename));
+      System.out.println("File written successfully");
+    } catch (IOException | InvalidPathException e) {
+      System.err.println("Error writing file: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Adds a game or games to the list: a name, a 1-based index or range into
+   * the filtered games, "all", or several of these separated by commas. A
+   * whole name takes priority, and nothing is added unless every selection
+   * is valid.
+   *
+   * @param str      the string to parse and add games to the list.
+   * @param filtered the filtered list to use as a basis for adding.
+   * @throws IllegalArgumentException if the string is not valid, or selects a
+   *                                  game that is not in the catalog
+   */
+  @Override
+  public void addToList(String str, Stream<BoardGame> filtered) throws IllegalArgumentException {
+    if (str == null || str.isEmpty()) {
+      throw new IllegalArgumentException("Input cannot be null or empty.");
+    }
+    String trimmedStr = str.trim().toLowerCase();
+    List<ListSelector> selectors = ListSelector.parse(trimmedStr);
+    List<BoardGame> filteredList = filtered.collect(Collectors.toList());
+    BitSet shown = ordinals(filteredList);
+
+    // A whole name takes priority over splitting it on commas
+    if (selectors.size() > 1) {
+      int whole = find(trimmedStr, shown);
+      if (whole >= 0) {
+        members.set(whole);
+        return;
+      }
+    }
+
+    // Resolve every selection before adding, so an invalid one adds nothing
+    BitSet toAdd = new BitSet(catalog.size());
+    for (ListSelector selector : selectors) {
+      switch (selector.getKind()) {
+        case ALL:
+          toAdd.or(shown);
+          break;
+        case RANGE:
+          selector.checkRange(filteredList.size());
+          toAdd.or(ordinals(filteredList.subList(selector.getStart() - 1, selector.getEnd())));
+          break;
+        default:
+          String name = selector.getText();
+          int ordinal = find(name, shown);
+          if (ordinal < 0) {
+            throw new GameNotFoundException(name, suggest(name, shown));
+          }
+          toAdd.set(ordinal);
+      }
+    }
+    members.or(toAdd);
+  }
+
+  /**
+   * Removes a game or games from the list: a name, a 1-based index or range
+   * into getGameNames, "all", or several of these separated by commas.
+   * Indexes refer to the list as it was before the call, and nothing is
+   * removed unless every selection is valid.
+   *
+   * @param str The string to parse and remove games from the list.
+   * @throws IllegalArgumentException If the string is not valid.
+   */
+  @Override
+  public void removeFromList(String str) throws IllegalArgumentException {
+    if (str == null || str.isEmpty()) {
+      throw new IllegalArgumentException("Input cannot be null or empty.");
+    }
+    String trimmedStr = str.trim().toLowerCase();
+    List<ListSelector> selectors = ListSelector.parse(trimmedStr);
+
+    // A whole name takes priority over splitting it on commas
+    if (selectors.size() > 1) {
+      int whole = find(trimmedStr, members);
+      if (whole >= 0) {
+        members.clear(whole);
+        return;
+      }
+    }
+
+    int[] order = null;
+    BitSet toRemove = new BitSet(catalog.size());
+    for (ListSelector selector : selectors) {
+      switch (selector.getKind()) {
+        case ALL:
+          toRemove.or(members);
+          break;
+        case RANGE:
+          if (order == null) {
+            order = sortedOrdinals();
+          }
+          selector.checkRange(order.length);
+          for (int i = selector.getStart() - 1; i < selector.getEnd(); i++) {
+            toRemove.set(order[i]);
+          }
+          break;
+        default:
+          String name = selector.getText();
+          int ordinal = find(name, members);
+          if (ordinal < 0) {
+            throw new GameNotFoundException(name, suggest(name, members));
+          }
+          toRemove.set(ordinal);
+      }
+    }
+    members.andNot(toRemove);
+  }
+
+  /**
+   * Creates a list of the games in this list, the other list, or both.
+   *
+   * @param other a list over the same catalog
+   * @return a new list
+   * @throws IllegalArgumentException if the lists are over different catalogs
+   */
+  public BitsetGameList union(BitsetGameList other) {
+    BitSet result = copyFor(other);
+    result.or(other.members);
+    return new BitsetGameList(catalog, result);
+  }
+
+  /**
+   * Creates a list of the games in both this list and the other list, for
+   * example the games two friends both want to play.
+   *
+   * @param other a list over the same catalog
+   * @return a new list
+   * @throws IllegalArgumentException if the lists are over different catalogs
+   */
+  public BitsetGameList intersection(BitsetGameList other) {
+    BitSet result = copyFor(other);
+    result.and(other.members);
+    return new BitsetGameList(catalog, result);
+  }
+
+  /**
+   * Creates a list of the games in this list that are not in the other list.
+   *
+   * @param other a list over the same catalog
+   * @return a new list
+   * @throws IllegalArgumentException if the lists are over different catalogs
+   */
+  public BitsetGameList difference(BitsetGameList other) {
+    BitSet result = copyFor(other);
+    result.andNot(other.members);
+    return new BitsetGameList(catalog, result);
+  }
+
+  /**
+   * Gets the games in the list.
+   *
+   * @return a new list of the games, in the same order as getGameNames
+   */
+  public List<BoardGame> getGames() {
+    int[] order = sortedOrdinals();
+    List<BoardGame> games = new ArrayList<>(order.length);
+    for (int ordinal : order) {
+      games.add(catalog.get(ordinal));
+    }
+    return games;
+  }
+
+  /**
+   * Copies this list's members to combine with another list's.
+   *
+   * @param other a list to combine with
+   * @return a copy of the members, owned by the caller
+   * @throws IllegalArgumentException if the lists are over different catalogs
+   */
+  private BitSet copyFor(BitsetGameList other) {
+    if (other.catalog != catalog) {
+      throw new IllegalArgumentException("Lists are over different catalogs");
+    }
+    return (BitSet) members.clone();
+  }
+
+  /**
+   * Sorts the listed ordinals by the rank of their name, then by ordinal,
+   * packing both into one long so a primitive sort is enough.
+   *
+   * @return listed ordinals in getGameNames order
+   */
+  private int[] sortedOrdinals() {
+    int[] nameRanks = catalog.ranks(GameData.NAME);
+    long[] keys = members.stream()
+        .mapToLong(ordinal -> (long) nameRanks[ordinal] << Integer.SIZE | ordinal).toArray();
+    Arrays.sort(keys);
+    int[] order = new int[keys.length];
+    for (int i = 0; i < keys.length; i++) {
+      order[i] = (int) keys[i];
+    }
+    return order;
+  }
+
+  /**
+   * Maps games to a bitmap of their ordinals.
+   *
+   * @param games games that must all be in the catalog
+   * @return bitmap of their ordinals
+   * @throws IllegalArgumentException if a game is not in the catalog
+   */
+  private BitSet ordinals(List<BoardGame> games) {
+    BitSet rows = new BitSet(catalog.size());
+    for (BoardGame game : games) {
+      int ordinal = catalog.ordinalOf(game);
+      if (ordinal < 0) {
+        throw new IllegalArgumentException("Game is not in the catalog: " + game.getName());
+      }
+      rows.set(ordinal);
+    }
+    return rows;
+  }
+
+  /**
+   * Finds a game by name among a set of ordinals, ignoring case and extra
+   * whitespace. If several have that name, the one with the lowest id is found.
+   *
+   * @param name the name to look up
+   * @param rows bitmap of the ordinals to look in
+   * @return the ordinal, or -1 if none of them has that name
+   */
+  private int find(String name, BitSet rows) {
+    for (BoardGame game : catalog.findAllByName(name)) {
+      int ordinal = catalog.ordinalOf(game);
+      if (rows.get(ordinal)) {
+        return ordinal;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Suggests names from a set of ordinals close to a name that was not found.
+   *
+   * @param name the name that was not found
+   * @param rows bitmap of the ordinals to suggest from
+   * @return names of close matches, closest first
+   */
+  private List<String> suggest(String name, BitSet rows) {
+    return catalog.suggest(name).stream().filter(game -> rows.get(catalog.ordinalOf(game)))
+        .map(BoardGame::getName).collect(Collectors.toList());
+  }
+}
@@ -0,0 +1,108 @@
+package student;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Holds the current catalog and swaps in new ones while sessions keep running.
+ *
+ * A new catalog is loaded and fully built in the background, then published
+ * with a single atomic reference swap, so readers never see a half built
+ * catalog and never wait for a lock. Planner sessions created over the
+ * registry notice the new version on their next call and replay their filter
+ * clauses on it; streams they already returned keep reading the catalog they
+ * were created from, which stays valid as it is immutable.
+ */
+public class CatalogRegistry {
+
+  private final AtomicReference<CatalogVersion> current;
+  private final Executor loader;
+
+  /**
+   * Constructor for the CatalogRegistry. Reloads run on their own daemon thread.
+   *
+   * @param catalog the first catalog
+   */
+  public CatalogRegistry(GameCatalog catalog) {
+    this(catalog, task -> {
+      Thread thread = new Thread(task, "catalog-reload");
+      thread.setDaemon(true);
+      thread.start();
+    });
+  }
+
+  /**
+   * Constructor for a CatalogRegistry that loads new catalogs on an executor.
+   *
+   * @param catalog the first catalog
+   * @param loader  runs the loading and building of new catalogs
+   */
+  public CatalogRegistry(GameCatalog catalog, Executor loader) {
+    this.current = new AtomicReference<>(new CatalogVersion(1, catalog));
+    this.loader = loader;
+  }
+
+  /**
+   * Gets the current catalog and its version, read together.
+   *
+   * @return the latest published version
+   */
+  public CatalogVersion current() {
+    return current.get();
+  }
+
+  /**
+   * Gets the current catalog.
+   *
+   * @return the latest published catalog
+   */
+  public GameCatalog getCatalog() {
+    return current.get().getCatalog();
+  }
+
+  /**
+   * Publishes an already built catalog as the new current version.
+   *
+   * @param catalog the new catalog
+   * @return the version it was published as
+   */
+  public CatalogVersion publish(GameCatalog catalog) {
+    return current.updateAndGet(old -> new CatalogVersion(old.getVersion() + 1, catalog));
+  }
+
+  /**
+   * Loads games and builds a catalog from them in the background, then
+   * publishes it. If loading fails, the current catalog stays in place.
+   *
+   * @param source loads the new collection of games
+   * @return completes with the published version, or exceptionally if loading failed
+   */
+  public CompletableFuture<CatalogVersion> reload(
+      Supplier<? extends Collection<BoardGame>> source) {
+    return CompletableFuture.supplyAsync(() -> new GameCatalog(source.get()), loader)
+        .thenApply(this::publish);
+  }
+
+  /**
+   * Loads a games file and builds a catalog from it in the background, then
+   * publishes it. GamesLoader reports a missing or unreadable file by loading
+   * no games, so a load with no games is treated as a failure rather than
+   * replacing the catalog with an empty one.
+   *
+   * @param filename the collection file, as passed to GamesLoader.loadGamesFile
+   * @return completes with the published version, or exceptionally if no games were loaded
+   */
+  public CompletableFuture<CatalogVersion> reload(String filename) {
+    return reload(() -> {
+      Set<BoardGame> games = GamesLoader.loadGamesFile(filename);
+      if (games.isEmpty()) {
+        throw new IllegalStateException("No games loaded from " + filename);
+      }
+      return games;
+    });
+  }
+}
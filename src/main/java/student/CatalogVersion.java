@@ -0,0 +1,49 @@
+package student;
+
+/**
+ * A catalog as published by a CatalogRegistry, with its version number.
+ */
+public final class CatalogVersion {
+
+  private final long version;
+  private final GameCatalog catalog;
+
+  /**
+   * Constructor for the CatalogVersion.
+   *
+   * @param version the version number, increasing with each publish
+   * @param catalog the catalog
+   */
+  CatalogVersion(long version, GameCatalog catalog) {
+    this.version = version;
+    this.catalog = catalog;
+  }
+
+  /**
+   * Gets the version number.
+   *
+   * @return 1 for the first catalog, one more for each catalog published after it
+   */
+  public long getVersion() {
+    return version;
+  }
+
+  /**
+   * Gets the catalog.
+   *
+   * @return the catalog of this version
+   */
+  public GameCatalog getCatalog() {
+    return catalog;
+  }
+
+  /**
+   * Get a toString that shows the version and catalog size.
+   *
+   * @return string representation of the version
+   */
+  @Override
+  public String toString() {
+    return "CatalogVersion{" + "version=" + version + ", games=" + catalog.size() + '}';
+  }
+}
@@ -0,0 +1,152 @@
+package student;
+
+import java.util.Arrays;
+
+/**
+ * Summary statistics of one numeric column over a set of games.
+ *
+ * Values are accumulated as primitives in a single pass; count, sum, min and
+ * max are kept as they arrive, and percentiles are answered from the kept
+ * values, which are sorted once on the first percentile request.
+ */
+public class ColumnStats {
+
+  private final GameData column;
+  private double[] values;
+  private int count;
+  private double sum;
+  private double min;
+  private double max;
+  private boolean sorted;
+
+  /**
+   * Constructor for empty ColumnStats.
+   *
+   * @param column   the column being summarized
+   * @param capacity expected number of values
+   */
+  ColumnStats(GameData column, int capacity) {
+    this.column = column;
+    this.values = new double[Math.max(capacity, 4)];
+    this.count = 0;
+    this.sum = 0;
+    this.min = Double.POSITIVE_INFINITY;
+    this.max = Double.NEGATIVE_INFINITY;
+    this.sorted = true;
+  }
+
+  /**
+   * Adds one value.
+   *
+   * @param value the value to add
+   */
+  void accept(double value) {
+    if (count == values.length) {
+      values = Arrays.copyOf(values, count * 2);
+    }
+    values[count++] = value;
+    sum += value;
+    min = Math.min(min, value);
+    max = Math.max(max, value);
+    sorted = false;
+  }
+
+  /**
+   * Gets the column these statistics describe.
+   *
+   * @return the column
+   */
+  public GameData getColumn() {
+    return column;
+  }
+
+  /**
+   * Gets the number of values.
+   *
+   * @return number of games counted
+   */
+  public int getCount() {
+    return count;
+  }
+
+  /**
+   * Gets the sum of the values.
+   *
+   * @return sum, 0 if empty
+   */
+  public double getSum() {
+    return sum;
+  }
+
+  /**
+   * Gets the smallest value.
+   *
+   * @return minimum, NaN if empty
+   */
+  public double getMin() {
+    return count == 0 ? Double.NaN : min;
+  }
+
+  /**
+   * Gets the largest value.
+   *
+   * @return maximum, NaN if empty
+   */
+  public double getMax() {
+    return count == 0 ? Double.NaN : max;
+  }
+
+  /**
+   * Gets the mean of the values.
+   *
+   * @return average, NaN if empty
+   */
+  public double getAverage() {
+    return count == 0 ? Double.NaN : sum / count;
+  }
+
+  /**
+   * Gets the median of the values.
+   *
+   * @return the 50th percentile, NaN if empty
+   */
+  public double getMedian() {
+    return getPercentile(50);
+  }
+
+  /**
+   * Gets a percentile of the values, interpolating linearly between the two
+   * closest ranks.
+   *
+   * @param percentile the percentile to get, from 0 to 100
+   * @return the value at that percentile, NaN if empty
+   * @throws IllegalArgumentException if percentile is outside 0 to 100
+   */
+  public double getPercentile(double percentile) {
+    if (!(percentile >= 0 && percentile <= 100)) {
+      throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+    }
+    if (count == 0) {
+      return Double.NaN;
+    }
+    if (!sorted) {
+      Arrays.sort(values, 0, count);
+      sorted = true;
+    }
+    double rank = percentile / 100 * (count - 1);
+    int lower = (int) Math.floor(rank);
+    int upper = (int) Math.ceil(rank);
+    return values[lower] + (values[upper] - values[lower]) * (rank - lower);
+  }
+
+  /**
+   * Get a toString that shows the main statistics.
+   *
+   * @return string representation of the statistics
+   */
+  @Override
+  public String toString() {
+    return "ColumnStats{" + "column=" + column.getColumnName() + ", count=" + count + ", min="
+        + getMin() + ", max=" + getMax() + ", avg=" + getAverage() + '}';
+  }
+}
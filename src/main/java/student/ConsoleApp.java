@@ -1,6 +1,7 @@
 package student;
 
-import java.util.Collections;
+import java.io.IOException;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Properties;
 import java.util.Scanner;
@@ -119,9 +120,8 @@ public class ConsoleApp {
         GameData sortON = GameData.NAME; // default
 
         if (current.hasNext()) {
+            // spaces are kept, as they can be part of a value (name~=go fish)
             String filter = remainder();
-            filter = filter.replaceAll("\\s", ""); // remove spaces
-            filter = filter.toLowerCase(); // make it lower case
             if (filter.equalsIgnoreCase(ConsoleText.CMD_QUESTION.toString())) {
                 printOutput("%s%n", ConsoleText.FILTER_HELP);
                 return; // leave early. only doing ? as help could be a game name.
@@ -132,33 +132,43 @@ public class ConsoleApp {
                 printOutput("%s%n", ConsoleText.FILTERED_CLEAR);
                 return; // leave early.
             }
-            if (filter.contains(ConsoleText.CMD_SORT_OPTION.toString())) {
-                // break it up, figure out sort
-                boolean ascending = true; // default
-                String[] parts = filter.split(ConsoleText.CMD_SORT_OPTION.toString());
-                if (parts.length == 2) {
-                    String sort = parts[1];
-                    if (sort.contains(ConsoleText.CMD_SORT_OPTION_DIRECTION_ASC.toString())) {
-                        ascending = true;
-                        sort = sort.substring(0,
-                                sort.indexOf(ConsoleText.CMD_SORT_OPTION_DIRECTION_ASC.toString()));
-                    } else if (sort
-                            .contains(ConsoleText.CMD_SORT_OPTION_DIRECTION_DESC.toString())) {
-                        ascending = false;
-                        sort = sort.substring(0, sort
-                                .indexOf(ConsoleText.CMD_SORT_OPTION_DIRECTION_DESC.toString()));
+
+            if (filter.equalsIgnoreCase(ConsoleText.CMD_UNDO.toString())
+                    && planner instanceof Planner) {
+                ((Planner) planner).undo();
+                result = planner.filter("");
+                printFilterStream(result, sortON);
+                return; // leave early.
+            }
+            int sortIndex = filter.toLowerCase().indexOf(ConsoleText.CMD_SORT_OPTION.toString());
+            try {
+                if (sortIndex >= 0) {
+                    // break it up, figure out sort, e.g. "rating desc, name asc"
+                    String sort = filter.substring(sortIndex
+                            + ConsoleText.CMD_SORT_OPTION.toString().length());
+                    SortSpec spec = SortSpec.of(sortON, true); // default
+                    if (!sort.isBlank()) {
+                        try {
+                            spec = SortSpec.parse(sort);
+                        } catch (IllegalArgumentException e) {
+                            printOutput("%s%n", ConsoleText.INVALID);
+                            return; // leave early.
+                        }
                     }
-                    try {
-                        sortON = GameData.fromString(sort);
-                    } catch (IllegalArgumentException e) {
-                        printOutput("%s%n", ConsoleText.INVALID);
-                        return; // leave early.
+                    sortON = spec.getColumn(0);
+                    if (spec.size() > 1 && planner instanceof Planner) {
+                        result = ((Planner) planner).filter(filter.substring(0, sortIndex), spec);
+                    } else {
+                        result = planner.filter(filter.substring(0, sortIndex), sortON,
+                                spec.isAscending(0));
                     }
+                } else {
+                    result = planner.filter(filter); // default sort
                 }
-
-                result = planner.filter(parts[0], sortON, ascending);  // NOTICE: sortON and ascending are used here.
-            } else {
-                result = planner.filter(filter); // default sort
+            } catch (FilterParseException e) {
+                printOutput("%s%n", e.getMessage());
+                sortON = GameData.NAME;
+                result = planner.filter(""); // the filters applied are unchanged
             }
         } else {
             printOutput("%s%n", ConsoleText.NO_FILTER);
@@ -175,10 +185,14 @@ public class ConsoleApp {
      *               type.
      */
     private static void printFilterStream(Stream<BoardGame> games, GameData sortON) {
+        if (games == null) {
+            return;
+        }
+        // print as the games arrive, rather than collecting the whole result first
         int counter = 1;
-        List<BoardGame> gameList = games != null ? games.toList() : Collections.emptyList();
-        for (BoardGame game : gameList) {
-            printOutput("%d: %s%n", counter++, game.toStringWithInfo(sortON));
+        Iterator<BoardGame> iterator = games.iterator();
+        while (iterator.hasNext()) {
+            printOutput("%d: %s%n", counter++, iterator.next().toStringWithInfo(sortON));
         }
     }
 
@@ -203,9 +217,16 @@ public class ConsoleApp {
                         break;
                     }
                     try {
-                        gameList.addToList(toAdd, planner.filter(""));
+                        if (planner instanceof Planner && gameList instanceof GameList) {
+                            // pick from the result as it was shown, without filtering again
+                            ((GameList) gameList).addToList(toAdd,
+                                    ((Planner) planner).getLastResult());
+                        } else {
+                            gameList.addToList(toAdd, planner.filter(""));
+                        }
                     } catch (IllegalArgumentException e) {
                         printOutput("%s %s%n", ConsoleText.INVALID_LIST, toAdd);
+                        printSuggestions(e);
                     }
                     break;
                 case CMD_REMOVE:
@@ -217,6 +238,7 @@ public class ConsoleApp {
                         gameList.removeFromList(remove);
                     } catch (IllegalArgumentException e) {
                         printOutput("%s %s%n", ConsoleText.INVALID_LIST, remove);
+                        printSuggestions(e);
                     }
                     break;
                 case CMD_SAVE:
@@ -227,6 +249,13 @@ public class ConsoleApp {
                     }
                     gameList.saveGame(filename);
                     break;
+                case CMD_LOAD:
+                    String toLoad = remainder().trim();
+                    if (toLoad.isEmpty()) {
+                        toLoad = DEFAULT_FILENAME;
+                    }
+                    loadList(toLoad);
+                    break;
                 case CMD_QUESTION:
                 case CMD_HELP:
                     printOutput("%s%n", ConsoleText.LIST_HELP);
@@ -240,6 +269,42 @@ public class ConsoleApp {
         }
     }
 
+    /**
+     * Load a saved list into the game list, reporting names that no longer
+     * match a game.
+     * 
+     * @param filename the file to load.
+     */
+    private void loadList(String filename) {
+        if (!(gameList instanceof GameList)) {
+            printOutput("%s%n", ConsoleText.INVALID);
+            return;
+        }
+        try {
+            ImportResult result = ((GameList) gameList).loadGame(filename);
+            printOutput("%s %d%n", ConsoleText.LIST_LOADED, result.getAdded());
+            for (String entry : result.getUnresolved()) {
+                printOutput("%s %s%n", ConsoleText.LIST_UNRESOLVED, entry);
+            }
+        } catch (IOException | IllegalStateException e) {
+            printOutput("%s %s%n", ConsoleText.INVALID_LIST, filename);
+        }
+    }
+
+    /**
+     * Print close matches for a mistyped game name, if there are any.
+     * 
+     * @param e the exception thrown by the list command.
+     */
+    private static void printSuggestions(IllegalArgumentException e) {
+        if (e instanceof GameNotFoundException) {
+            List<String> suggestions = ((GameNotFoundException) e).getSuggestions();
+            if (!suggestions.isEmpty()) {
+                printOutput("%s%s%n", ConsoleText.DID_YOU_MEAN, String.join(", ", suggestions));
+            }
+        }
+    }
+
     /**
      * Print the current list of games.
      */
@@ -328,11 +393,11 @@ public class ConsoleApp {
         /** various commands and text. */
         WELCOME, HELP, INVALID, GOODBYE, PROMPT, NO_FILTER, NO_GAMES_LIST, FILTERED_CLEAR, LIST_HELP, FILTER_HELP,
         /** commands continued. */
-        INVALID_LIST, EASTER_EGG, CMD_EASTER_EGG,
+        INVALID_LIST, DID_YOU_MEAN, LIST_LOADED, LIST_UNRESOLVED, EASTER_EGG, CMD_EASTER_EGG,
         /** commands general. */
         CMD_EXIT, CMD_HELP, CMD_QUESTION, CMD_FILTER, CMD_LIST,
         /** commands specific to lists and filters. */
-        CMD_SHOW, CMD_ADD, CMD_REMOVE, CMD_CLEAR, CMD_SAVE,
+        CMD_SHOW, CMD_ADD, CMD_REMOVE, CMD_CLEAR, CMD_SAVE, CMD_LOAD, CMD_UNDO,
         /** more options on commands. */
         CMD_OPTION_ALL, CMD_SORT_OPTION, CMD_SORT_OPTION_DIRECTION_ASC, CMD_SORT_OPTION_DIRECTION_DESC;
 
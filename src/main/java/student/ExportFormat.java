@@ -0,0 +1,52 @@
+package student;
+
+/**
+ * File formats GameExporter can write full game records in.
+ */
+public enum ExportFormat {
+  /** Comma separated values with a header row of the collection's column names. */
+  CSV("csv"),
+  /** One JSON array of game objects. */
+  JSON("json"),
+  /** Newline delimited JSON: one game object per line. */
+  NDJSON("ndjson");
+
+  /** The usual file extension, without the dot. */
+  private final String extension;
+
+  /**
+   * Constructor for the enum.
+   *
+   * @param extension the usual file extension
+   */
+  ExportFormat(String extension) {
+    this.extension = extension;
+  }
+
+  /**
+   * Getter for the file extension.
+   *
+   * @return the usual file extension, without the dot
+   */
+  public String getExtension() {
+    return extension;
+  }
+
+  /**
+   * Get the format from a file name's extension, ignoring case.
+   *
+   * @param filename the name of the file to export to
+   * @return the format matching the extension
+   * @throws IllegalArgumentException if the extension is not a known format
+   */
+  public static ExportFormat fromFilename(String filename) {
+    int dot = filename.lastIndexOf('.');
+    String extension = dot < 0 ? "" : filename.substring(dot + 1);
+    for (ExportFormat format : values()) {
+      if (format.extension.equalsIgnoreCase(extension)) {
+        return format;
+      }
+    }
+    throw new IllegalArgumentException("No export format for " + filename);
+  }
+}
@@ -0,0 +1,275 @@
+package student;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Facet counts (histograms) of a filtered set of games.
+ *
+ * Tracks how many games support each player count, fall into each play time
+ * bucket (by maximum play time), each whole difficulty step and each decade,
+ * plus a joint players by play time table, so questions like "how many
+ * 2-player games fit in 60 minutes" are answered without scanning games.
+ *
+ * Instances are immutable. Narrowing to a subset of the games builds the new
+ * counts incrementally from the old ones, touching only the games that were
+ * removed (or only the games that remain, whichever is fewer).
+ */
+public final class FacetCounts {
+
+  /** Largest player count tracked. */
+  public static final int MAX_PLAYERS = 10;
+  /** Number of whole difficulty steps tracked, the last one including 5.0. */
+  public static final int DIFFICULTY_BUCKETS = 5;
+  /** Inclusive upper bound, in minutes, of each play time bucket. */
+  private static final int[] TIME_BOUNDS = {15, 30, 45, 60, 90, 120, 180, 240, Integer.MAX_VALUE};
+
+  private int total;
+  private final int[] players;
+  private final int[][] playersByTime;
+  private final int[] time;
+  private final int[] difficulty;
+  private final int firstDecade;
+  private final int[] decades;
+
+  /**
+   * Constructor for empty counts.
+   *
+   * @param firstDecade decade of the oldest game in the catalog (year / 10)
+   * @param decadeCount number of decades the catalog spans
+   */
+  private FacetCounts(int firstDecade, int decadeCount) {
+    this.total = 0;
+    this.players = new int[MAX_PLAYERS];
+    this.playersByTime = new int[MAX_PLAYERS][TIME_BOUNDS.length];
+    this.time = new int[TIME_BOUNDS.length];
+    this.difficulty = new int[DIFFICULTY_BUCKETS];
+    this.firstDecade = firstDecade;
+    this.decades = new int[decadeCount];
+  }
+
+  /**
+   * Copy constructor.
+   *
+   * @param other counts to copy
+   */
+  private FacetCounts(FacetCounts other) {
+    this.total = other.total;
+    this.players = other.players.clone();
+    this.playersByTime = new int[MAX_PLAYERS][];
+    for (int p = 0; p < MAX_PLAYERS; p++) {
+      this.playersByTime[p] = other.playersByTime[p].clone();
+    }
+    this.time = other.time.clone();
+    this.difficulty = other.difficulty.clone();
+    this.firstDecade = other.firstDecade;
+    this.decades = other.decades.clone();
+  }
+
+  /**
+   * Counts the facets of a set of games from scratch.
+   *
+   * @param catalog the catalog the bitmap refers to
+   * @param rows    bitmap of games to count
+   * @return facet counts of the games
+   */
+  static FacetCounts of(GameCatalog catalog, BitSet rows) {
+    FacetCounts counts;
+    if (catalog.size() == 0) {
+      counts = new FacetCounts(0, 0);
+    } else {
+      int first = Math.floorDiv((int) catalog.min(GameData.YEAR), 10);
+      int last = Math.floorDiv((int) catalog.max(GameData.YEAR), 10);
+      counts = new FacetCounts(first, last - first + 1);
+    }
+    for (int i = rows.nextSetBit(0); i >= 0; i = rows.nextSetBit(i + 1)) {
+      counts.update(catalog, i, 1);
+    }
+    return counts;
+  }
+
+  /**
+   * Derives the counts of a subset of the games these counts describe.
+   *
+   * @param catalog the catalog the bitmaps refer to
+   * @param from    bitmap these counts were built from
+   * @param to      bitmap of the remaining games, a subset of from
+   * @return facet counts of the remaining games
+   */
+  FacetCounts narrow(GameCatalog catalog, BitSet from, BitSet to) {
+    // copied with or() rather than clone(), which can trim a shared bitmap's words
+    BitSet removed = new BitSet(from.length());
+    removed.or(from);
+    removed.andNot(to);
+    if (removed.cardinality() > to.cardinality()) {
+      return of(catalog, to); // cheaper to recount what is left
+    }
+    FacetCounts counts = new FacetCounts(this);
+    for (int i = removed.nextSetBit(0); i >= 0; i = removed.nextSetBit(i + 1)) {
+      counts.update(catalog, i, -1);
+    }
+    return counts;
+  }
+
+  /**
+   * Adds or removes one game from every facet.
+   *
+   * @param catalog the catalog the ordinal refers to
+   * @param ordinal the game
+   * @param delta   1 to add, -1 to remove
+   */
+  private void update(GameCatalog catalog, int ordinal, int delta) {
+    total += delta;
+    int timeBucket = timeBucket((int) catalog.column(GameData.MAX_TIME)[ordinal]);
+    time[timeBucket] += delta;
+
+    int minPlayers = Math.max(1, (int) catalog.column(GameData.MIN_PLAYERS)[ordinal]);
+    int maxPlayers = Math.min(MAX_PLAYERS, (int) catalog.column(GameData.MAX_PLAYERS)[ordinal]);
+    for (int p = minPlayers; p <= maxPlayers; p++) {
+      players[p - 1] += delta;
+      playersByTime[p - 1][timeBucket] += delta;
+    }
+
+    int step = (int) catalog.column(GameData.DIFFICULTY)[ordinal];
+    difficulty[Math.max(0, Math.min(DIFFICULTY_BUCKETS - 1, step))] += delta;
+
+    int year = (int) catalog.column(GameData.YEAR)[ordinal];
+    decades[Math.floorDiv(year, 10) - firstDecade] += delta;
+  }
+
+  /**
+   * Finds the play time bucket for a maximum play time.
+   *
+   * @param minutes maximum play time
+   * @return index of the first bucket whose bound is at least minutes
+   */
+  private static int timeBucket(int minutes) {
+    int bucket = 0;
+    while (minutes > TIME_BOUNDS[bucket]) {
+      bucket++;
+    }
+    return bucket;
+  }
+
+  /**
+   * Gets the number of games counted.
+   *
+   * @return number of games
+   */
+  public int getTotal() {
+    return total;
+  }
+
+  /**
+   * Counts the games that support exactly this many players.
+   *
+   * @param count number of players, from 1 to MAX_PLAYERS
+   * @return number of games, 0 if count is outside the tracked range
+   */
+  public int countSupportingPlayers(int count) {
+    return count < 1 || count > MAX_PLAYERS ? 0 : players[count - 1];
+  }
+
+  /**
+   * Counts the games whose maximum play time fits in the given minutes.
+   *
+   * Play times are bucketed, so minutes is rounded down to the nearest bucket
+   * bound (see getTimeBucketBounds).
+   *
+   * @param minutes time available
+   * @return number of games
+   */
+  public int countWithinTime(int minutes) {
+    int count = 0;
+    for (int b = 0; b < TIME_BOUNDS.length && TIME_BOUNDS[b] <= minutes; b++) {
+      count += time[b];
+    }
+    return count;
+  }
+
+  /**
+   * Counts the games that support this many players and whose maximum play
+   * time fits in the given minutes (rounded down to a bucket bound).
+   *
+   * @param count   number of players, from 1 to MAX_PLAYERS
+   * @param minutes time available
+   * @return number of games
+   */
+  public int countFitting(int count, int minutes) {
+    if (count < 1 || count > MAX_PLAYERS) {
+      return 0;
+    }
+    int fitting = 0;
+    for (int b = 0; b < TIME_BOUNDS.length && TIME_BOUNDS[b] <= minutes; b++) {
+      fitting += playersByTime[count - 1][b];
+    }
+    return fitting;
+  }
+
+  /**
+   * Gets the games per player count, index 0 being 1 player.
+   *
+   * @return player histogram
+   */
+  public int[] getPlayerHistogram() {
+    return players.clone();
+  }
+
+  /**
+   * Gets the inclusive upper bound of each play time bucket, in minutes. The
+   * last bucket is unbounded (Integer.MAX_VALUE).
+   *
+   * @return bucket bounds, matching getTimeHistogram
+   */
+  public int[] getTimeBucketBounds() {
+    return TIME_BOUNDS.clone();
+  }
+
+  /**
+   * Gets the games per play time bucket.
+   *
+   * @return play time histogram
+   */
+  public int[] getTimeHistogram() {
+    return time.clone();
+  }
+
+  /**
+   * Gets the games per whole difficulty step, index 0 being [0, 1).
+   *
+   * @return difficulty histogram
+   */
+  public int[] getDifficultyHistogram() {
+    return difficulty.clone();
+  }
+
+  /**
+   * Gets the games per decade, keyed by the first year of the decade. Decades
+   * without games are left out.
+   *
+   * @return decade histogram in ascending order
+   */
+  public SortedMap<Integer, Integer> getDecadeHistogram() {
+    SortedMap<Integer, Integer> histogram = new TreeMap<>();
+    for (int d = 0; d < decades.length; d++) {
+      if (decades[d] > 0) {
+        histogram.put((firstDecade + d) * 10, decades[d]);
+      }
+    }
+    return histogram;
+  }
+
+  /**
+   * Get a toString that shows the main histograms.
+   *
+   * @return string representation of the counts
+   */
+  @Override
+  public String toString() {
+    return "FacetCounts{" + "total=" + total + ", players=" + Arrays.toString(players)
+        + ", time=" + Arrays.toString(time) + ", difficulty=" + Arrays.toString(difficulty)
+        + '}';
+  }
+}
@@ -0,0 +1,105 @@
+package student;
+
+/**
+ * A single parsed filter clause, such as minPlayers>4.
+ *
+ * Produced by FilterParser. The search term is parsed once here, so
+ * evaluating the clause against each game does not re-parse or re-lowercase
+ * it.
+ */
+public final class FilterClause {
+
+  private final GameData column;
+  private final Operations operator;
+  private final String value;
+  private final String lowerValue;
+  private final double number;
+  private final int position;
+
+  /**
+   * Constructor for the FilterClause.
+   *
+   * @param column   the column being filtered
+   * @param operator the comparison to apply
+   * @param value    the search term, unquoted
+   * @param number   the search term as a number, or NaN for the name column
+   * @param position zero-based index of the clause in the filter string
+   */
+  public FilterClause(GameData column, Operations operator, String value, double number,
+      int position) {
+    this.column = column;
+    this.operator = operator;
+    this.value = value;
+    this.lowerValue = value.toLowerCase();
+    this.number = number;
+    this.position = position;
+  }
+
+  /**
+   * Gets the column being filtered.
+   *
+   * @return the column
+   */
+  public GameData getColumn() {
+    return column;
+  }
+
+  /**
+   * Gets the comparison to apply.
+   *
+   * @return the operator
+   */
+  public Operations getOperator() {
+    return operator;
+  }
+
+  /**
+   * Gets the search term as written, without quotes.
+   *
+   * @return the search term
+   */
+  public String getValue() {
+    return value;
+  }
+
+  /**
+   * Gets the search term in lower case, for case insensitive comparisons.
+   *
+   * @return the lower case search term
+   */
+  public String getLowerValue() {
+    return lowerValue;
+  }
+
+  /**
+   * Gets the search term as a number.
+   *
+   * @return the numeric search term, or NaN for the name column
+   */
+  public double getNumber() {
+    return number;
+  }
+
+  /**
+   * Gets where the clause starts in the filter string.
+   *
+   * @return zero-based index of the clause
+   */
+  public int getPosition() {
+    return position;
+  }
+
+  /**
+   * Get a toString that rebuilds the clause in filter syntax, quoting the
+   * search term when it could not be read back unquoted.
+   *
+   * @return the clause as a filter string
+   */
+  @Override
+  public String toString() {
+    boolean quote = value.isEmpty() || value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+        || !value.equals(value.trim());
+    String term = quote ? '"' + value.replace("\\", "\\\\").replace("\"", "\\\"") + '"' : value;
+    return column.getColumnName() + operator.getOperator() + term;
+  }
+}
@@ -0,0 +1,120 @@
+package student;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Stack of intermediate filter states.
+ *
+ * Each applied filter clause pushes the resulting state (a bitmap of catalog
+ * ordinals plus its facet counts), so the last clause can be undone in O(1)
+ * by popping instead of resetting and re-running every earlier clause.
+ * States are never mutated once pushed.
+ */
+public class FilterHistory {
+
+  private final GameCatalog catalog;
+  private final FilterState base;
+  private final Deque<FilterState> states;
+
+  /**
+   * Constructor for the FilterHistory.
+   *
+   * @param catalog the catalog being filtered; its unfiltered state can never be popped
+   */
+  public FilterHistory(GameCatalog catalog) {
+    this.catalog = catalog;
+    this.base = catalog.unfiltered();
+    this.states = new ArrayDeque<>();
+  }
+
+  /**
+   * Gets the current filter state.
+   *
+   * @return the state after every applied clause
+   */
+  public FilterState current() {
+    FilterState top = states.peek();
+    return top == null ? base : top;
+  }
+
+  /**
+   * Pushes the state produced by applying one more clause. Facet counts are
+   * derived incrementally from the current state.
+   *
+   * @param clause the clause that was applied
+   * @param rows   bitmap after the clause, a subset of the current rows
+   */
+  public void push(FilterClause clause, BitSet rows) {
+    FilterState top = current();
+    FacetCounts facets = top.getFacets().narrow(catalog, top.getRows(), rows);
+    states.push(new FilterState(rows, facets, clause));
+  }
+
+  /**
+   * Pushes a state that was computed elsewhere from an identical state, for
+   * example by another session applying the same filter to the same catalog.
+   * States are immutable, so they can be shared.
+   *
+   * @param state the state to push, computed from the current state's clauses
+   */
+  void push(FilterState state) {
+    states.push(state);
+  }
+
+  /**
+   * Gets the states pushed after the history had the given depth.
+   *
+   * @param depth a depth the history had earlier
+   * @return the states above that depth, oldest first
+   */
+  List<FilterState> statesAbove(int depth) {
+    List<FilterState> above = new ArrayList<>(states).subList(0, states.size() - depth);
+    Collections.reverse(above);
+    return above;
+  }
+
+  /**
+   * Pops the most recent clause.
+   *
+   * @return true if a clause was removed, false if already unfiltered
+   */
+  public boolean pop() {
+    return states.poll() != null;
+  }
+
+  /**
+   * Drops every clause, returning to the unfiltered state.
+   */
+  public void clear() {
+    states.clear();
+  }
+
+  /**
+   * Gets the clauses currently applied, so the state can be rebuilt by
+   * applying them again.
+   *
+   * @return the clauses, oldest first
+   */
+  public List<FilterClause> clauses() {
+    List<FilterClause> clauses = new ArrayList<>(states.size());
+    for (Iterator<FilterState> it = states.descendingIterator(); it.hasNext();) {
+      clauses.add(it.next().getClause());
+    }
+    return clauses;
+  }
+
+  /**
+   * Gets the number of clauses currently applied.
+   *
+   * @return depth of the stack
+   */
+  public int depth() {
+    return states.size();
+  }
+}
@@ -0,0 +1,70 @@
+package student;
+
+import java.util.List;
+
+/**
+ * What applying a filter did to a Planner session: the states it pushed and
+ * the sorted games that resulted, on a given catalog.
+ *
+ * Another session with the same clauses over the same catalog can adopt the
+ * outcome instead of applying the filter itself.
+ */
+final class FilterOutcome {
+
+  private final GameCatalog catalog;
+  private final List<FilterState> states;
+  private final SortSpec sortOn;
+  private final List<BoardGame> games;
+
+  /**
+   * Constructor for the FilterOutcome.
+   *
+   * @param catalog the catalog the filter was applied to
+   * @param states  the states the filter pushed, oldest first
+   * @param sortOn  the sort the games are in
+   * @param games   the sorted games after the filter
+   */
+  FilterOutcome(GameCatalog catalog, List<FilterState> states, SortSpec sortOn,
+      List<BoardGame> games) {
+    this.catalog = catalog;
+    this.states = List.copyOf(states);
+    this.sortOn = sortOn;
+    this.games = List.copyOf(games);
+  }
+
+  /**
+   * Gets the catalog the filter was applied to.
+   *
+   * @return the catalog the states' bitmaps refer to
+   */
+  GameCatalog getCatalog() {
+    return catalog;
+  }
+
+  /**
+   * Gets the states the filter pushed.
+   *
+   * @return one state per clause, oldest first
+   */
+  List<FilterState> getStates() {
+    return states;
+  }
+
+  /**
+   * Gets the sort the games are in.
+   *
+   * @return the sort the filter was run with
+   */
+  SortSpec getSortSpec() {
+    return sortOn;
+  }
+
+  /**
+   * Gets the games after the filter.
+   *
+   * @return the games, sorted
+   */
+  List<BoardGame> getGames() {
+    return games;
+  }
+}
@@ -0,0 +1,34 @@
+package student;
+
+/**
+ * Thrown when a filter string cannot be parsed.
+ *
+ * Carries the zero-based character position where parsing failed, so the
+ * caller can point at the offending part of the filter.
+ */
+public class FilterParseException extends IllegalArgumentException {
+
+  private static final long serialVersionUID = 1L;
+
+  private final int position;
+
+  /**
+   * Constructor for the FilterParseException.
+   *
+   * @param message  description of what was expected
+   * @param position zero-based index into the filter string
+   */
+  public FilterParseException(String message, int position) {
+    super(message + " at position " + position);
+    this.position = position;
+  }
+
+  /**
+   * Gets the position in the filter where parsing failed.
+   *
+   * @return zero-based index into the filter string
+   */
+  public int getPosition() {
+    return position;
+  }
+}
@@ -0,0 +1,286 @@
+package student;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Single-pass parser for the filter language described in IPlanner.
+ *
+ * The filter string is scanned once, left to right, producing a list of
+ * FilterClause objects directly. Grammar:
+ *
+ * <pre>
+ * filter := clause? (',' clause?)*
+ * clause := column operator value
+ * value  := '"' (char | '\' char)* '"' | any text up to the next ','
+ * </pre>
+ *
+ * Besides the GameData columns, "players" and "playtime" name a game's whole
+ * min to max range and can only be used with the @= (fits) operator, as in
+ * players@=4.
+ *
+ * Whitespace around columns, operators and values is ignored, but kept inside
+ * a value (name~=Go Fish). Quoted values may contain commas and operator
+ * characters. Errors are reported as a FilterParseException with the
+ * position of the offending character.
+ */
+public final class FilterParser {
+
+  /** Column lookup by lower case enum name or csv column name. */
+  private static final Map<String, GameData> COLUMNS = new HashMap<>();
+
+  /** Names for a whole range, usable only with the @= (fits) operator. */
+  private static final Map<String, GameData> RANGES = Map.of(
+      "players", GameData.MIN_PLAYERS,
+      "playtime", GameData.MIN_TIME);
+
+  static {
+    for (GameData col : GameData.values()) {
+      COLUMNS.put(col.name().toLowerCase(), col);
+      COLUMNS.put(col.getColumnName().toLowerCase(), col);
+    }
+  }
+
+  private final String input;
+  private final int length;
+  private int pos;
+
+  /**
+   * Constructor for the FilterParser.
+   *
+   * @param input the filter string to parse
+   */
+  private FilterParser(String input) {
+    this.input = input;
+    this.length = input.length();
+    this.pos = 0;
+  }
+
+  /**
+   * Parses a filter string into its clauses.
+   *
+   * @param filter the filter string to parse
+   * @return the clauses in the order they were written, empty if the filter is blank
+   * @throws FilterParseException if the filter is not valid
+   */
+  public static List<FilterClause> parse(String filter) throws FilterParseException {
+    return new FilterParser(filter).parseFilter();
+  }
+
+  /**
+   * Parses clauses separated by commas until the end of the input.
+   *
+   * @return list of clauses
+   */
+  private List<FilterClause> parseFilter() {
+    List<FilterClause> clauses = new ArrayList<>();
+    while (true) {
+      skipWhitespace();
+      if (pos >= length) {
+        return clauses;
+      }
+      if (input.charAt(pos) != ',') {
+        clauses.add(parseClause());
+      }
+      // parseClause stops on the separator or the end of input
+      if (pos < length) {
+        pos++;
+      }
+    }
+  }
+
+  /**
+   * Parses a single column, operator and value.
+   *
+   * @return the parsed clause
+   */
+  private FilterClause parseClause() {
+    int start = pos;
+    String name = parseIdentifier();
+    GameData column = COLUMNS.get(name);
+    GameData range = RANGES.get(name);
+    if (column == null && range == null) {
+      throw new FilterParseException("Unknown column '" + input.substring(start, pos) + "'", start);
+    }
+    skipWhitespace();
+    int operatorStart = pos;
+    Operations operator = parseOperator();
+    skipWhitespace();
+    int valueStart = pos;
+    String value = parseValue();
+
+    if (operator == Operations.FITS) {
+      column = range != null ? range : column;
+      if (!isRangeColumn(column)) {
+        throw new FilterParseException("Operator @= only applies to players and playtime",
+            operatorStart);
+      }
+    } else if (column == null) {
+      throw new FilterParseException("Only @= can be used with " + name, operatorStart);
+    }
+
+    double number = Double.NaN;
+    if (column == GameData.NAME) {
+      if (value.isEmpty() && operator == Operations.CONTAINS) {
+        throw new FilterParseException("Expected value", valueStart);
+      }
+    } else if (operator == Operations.CONTAINS) {
+      throw new FilterParseException("Operator ~= only applies to name", operatorStart);
+    } else {
+      number = parseNumber(column, value, valueStart);
+    }
+    return new FilterClause(column, operator, value, number, start);
+  }
+
+  /**
+   * Scans an identifier (a column name).
+   *
+   * @return the identifier in lower case
+   */
+  private String parseIdentifier() {
+    int start = pos;
+    while (pos < length && isIdentifierChar(input.charAt(pos))) {
+      pos++;
+    }
+    if (start == pos) {
+      throw new FilterParseException("Expected column name", start);
+    }
+    return input.substring(start, pos).toLowerCase();
+  }
+
+  /**
+   * Checks if a column is one end of a min to max range.
+   *
+   * @param column the column
+   * @return true for the player and play time columns
+   */
+  private static boolean isRangeColumn(GameData column) {
+    return column == GameData.MIN_PLAYERS || column == GameData.MAX_PLAYERS
+        || column == GameData.MIN_TIME || column == GameData.MAX_TIME;
+  }
+
+  /**
+   * Scans a one or two character operator.
+   *
+   * @return the operator
+   */
+  private Operations parseOperator() {
+    int start = pos;
+    char first = pos < length ? input.charAt(pos) : '\0';
+    boolean equalsNext = pos + 1 < length && input.charAt(pos + 1) == '=';
+    Operations operator;
+    switch (first) {
+      case '>':
+        operator = equalsNext ? Operations.GREATER_THAN_EQUALS : Operations.GREATER_THAN;
+        break;
+      case '<':
+        operator = equalsNext ? Operations.LESS_THAN_EQUALS : Operations.LESS_THAN;
+        break;
+      case '=':
+        operator = equalsNext ? Operations.EQUALS : null;
+        break;
+      case '!':
+        operator = equalsNext ? Operations.NOT_EQUALS : null;
+        break;
+      case '~':
+        operator = equalsNext ? Operations.CONTAINS : null;
+        break;
+      case '@':
+        operator = equalsNext ? Operations.FITS : null;
+        break;
+      default:
+        operator = null;
+    }
+    if (operator == null) {
+      throw new FilterParseException("Expected operator", start);
+    }
+    pos += operator.getOperator().length();
+    return operator;
+  }
+
+  /**
+   * Scans a quoted value, or raw text up to the next comma.
+   *
+   * @return the value without quotes or surrounding whitespace
+   */
+  private String parseValue() {
+    if (pos < length && input.charAt(pos) == '"') {
+      return parseQuoted();
+    }
+    int start = pos;
+    int end = pos;
+    while (pos < length && input.charAt(pos) != ',') {
+      if (!Character.isWhitespace(input.charAt(pos))) {
+        end = pos + 1;
+      }
+      pos++;
+    }
+    return input.substring(start, end);
+  }
+
+  /**
+   * Scans a double quoted value, where backslash escapes the next character.
+   *
+   * @return the unescaped contents of the quotes
+   */
+  private String parseQuoted() {
+    int start = pos;
+    pos++; // opening quote
+    StringBuilder sb = new StringBuilder();
+    while (pos < length) {
+      char c = input.charAt(pos++);
+      if (c == '"') {
+        skipWhitespace();
+        if (pos < length && input.charAt(pos) != ',') {
+          throw new FilterParseException("Expected ',' after quoted value", pos);
+        }
+        return sb.toString();
+      }
+      if (c == '\\' && pos < length) {
+        c = input.charAt(pos++);
+      }
+      sb.append(c);
+    }
+    throw new FilterParseException("Unterminated quoted value", start);
+  }
+
+  /**
+   * Parses the value of a numeric column.
+   *
+   * @param column the column being filtered
+   * @param value  the value text
+   * @param start  position of the value, for error reporting
+   * @return the numeric value
+   */
+  private static double parseNumber(GameData column, String value, int start) {
+    try {
+      if (column.isDecimal()) {
+        return Double.parseDouble(value);
+      }
+      return Integer.parseInt(value);
+    } catch (NumberFormatException e) {
+      throw new FilterParseException("Expected a number for " + column.getColumnName(), start);
+    }
+  }
+
+  /**
+   * Advances past any whitespace.
+   */
+  private void skipWhitespace() {
+    while (pos < length && Character.isWhitespace(input.charAt(pos))) {
+      pos++;
+    }
+  }
+
+  /**
+   * Checks if a character can be part of a column name.
+   *
+   * @param c the character
+   * @return true for letters, digits and underscores
+   */
+  private static boolean isIdentifierChar(char c) {
+    return Character.isLetterOrDigit(c) || c == '_';
+  }
+}
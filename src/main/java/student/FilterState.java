@@ -0,0 +1,65 @@
+package student;
+
+import java.util.BitSet;
+
+/**
+ * One entry of the filter history: the games passing every clause so far,
+ * their facet counts, and the clause that produced them.
+ *
+ * States are immutable once created; the bitmap must not be modified.
+ */
+public final class FilterState {
+
+  private final BitSet rows;
+  private final FacetCounts facets;
+  private final FilterClause clause;
+
+  /**
+   * Constructor for the FilterState.
+   *
+   * @param rows   bitmap of catalog ordinals passing the filter
+   * @param facets facet counts of those games
+   * @param clause the clause that produced this state, or null for the unfiltered state
+   */
+  FilterState(BitSet rows, FacetCounts facets, FilterClause clause) {
+    this.rows = rows;
+    this.facets = facets;
+    this.clause = clause;
+  }
+
+  /**
+   * Gets the games passing the filter.
+   *
+   * @return bitmap of catalog ordinals, which must not be modified
+   */
+  BitSet getRows() {
+    return rows;
+  }
+
+  /**
+   * Gets the facet counts of the games passing the filter.
+   *
+   * @return facet counts
+   */
+  public FacetCounts getFacets() {
+    return facets;
+  }
+
+  /**
+   * Gets the clause that produced this state.
+   *
+   * @return the clause, or null for the unfiltered state
+   */
+  public FilterClause getClause() {
+    return clause;
+  }
+
+  /**
+   * Gets the number of games passing the filter.
+   *
+   * @return number of games
+   */
+  public int size() {
+    return facets.getTotal();
+  }
+}
@@ -0,0 +1,86 @@
+package student;
+
+import java.util.BitSet;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Computes statistics over a filtered set of games.
+ *
+ * Every method makes a single pass over the set bits of the filter state,
+ * reading primitive values straight from the catalog's columns, so no
+ * BoardGame is boxed or streamed.
+ */
+public class GameAggregator {
+
+  /** Widest key range grouped through a flat array rather than a map. */
+  private static final int MAX_ARRAY_GROUPS = 1 << 16;
+
+  /**
+   * Summarizes a numeric column over the filtered games.
+   *
+   * @param catalog the catalog the bitmap refers to
+   * @param rows    bitmap of the filtered games
+   * @param column  numeric column to summarize
+   * @return statistics of the column
+   * @throws IllegalArgumentException if the column is not numeric
+   */
+  public ColumnStats aggregate(GameCatalog catalog, BitSet rows, GameData column) {
+    double[] values = catalog.column(column);
+    ColumnStats stats = new ColumnStats(column, rows.cardinality());
+    for (int i = rows.nextSetBit(0); i >= 0; i = rows.nextSetBit(i + 1)) {
+      stats.accept(values[i]);
+    }
+    return stats;
+  }
+
+  /**
+   * Summarizes a numeric column over the filtered games, grouped by the value
+   * of a whole number column (such as YEAR or MIN_PLAYERS).
+   *
+   * @param catalog the catalog the bitmap refers to
+   * @param rows    bitmap of the filtered games
+   * @param groupOn whole number column to group by
+   * @param column  numeric column to summarize
+   * @return statistics of the column per group, in ascending group order
+   * @throws IllegalArgumentException if groupOn is not a whole number column or
+   *                                  column is not numeric
+   */
+  public SortedMap<Integer, ColumnStats> groupBy(GameCatalog catalog, BitSet rows,
+      GameData groupOn, GameData column) {
+    if (!groupOn.isNumeric() || groupOn.isDecimal()) {
+      throw new IllegalArgumentException("Cannot group on " + groupOn.getColumnName());
+    }
+    double[] keys = catalog.column(groupOn);
+    double[] values = catalog.column(column);
+    SortedMap<Integer, ColumnStats> groups = new TreeMap<>();
+    if (rows.isEmpty()) {
+      return groups;
+    }
+
+    int offset = (int) catalog.min(groupOn);
+    long range = (long) catalog.max(groupOn) - offset + 1;
+    if (range > MAX_ARRAY_GROUPS) {
+      // Sparse keys: fall back to the map directly
+      for (int i = rows.nextSetBit(0); i >= 0; i = rows.nextSetBit(i + 1)) {
+        groups.computeIfAbsent((int) keys[i], k -> new ColumnStats(column, 0)).accept(values[i]);
+      }
+      return groups;
+    }
+
+    ColumnStats[] buckets = new ColumnStats[(int) range];
+    for (int i = rows.nextSetBit(0); i >= 0; i = rows.nextSetBit(i + 1)) {
+      int bucket = (int) keys[i] - offset;
+      if (buckets[bucket] == null) {
+        buckets[bucket] = new ColumnStats(column, 0);
+      }
+      buckets[bucket].accept(values[i]);
+    }
+    for (int b = 0; b < buckets.length; b++) {
+      if (buckets[b] != null) {
+        groups.put(b + offset, buckets[b]);
+      }
+    }
+    return groups;
+  }
+}
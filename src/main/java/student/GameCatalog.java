@@ -0,0 +1,430 @@
+package student;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Immutable, ordinal-indexed view of the full board game collection.
+ *
+ * Every game is given a fixed ordinal (its position when the collection is
+ * ordered by id), so filter states can be stored compactly as a BitSet over
+ * ordinals instead of a Set of BoardGame objects.
+ *
+ * Everything is built in the constructor and never changed afterwards, so one
+ * catalog can be shared by any number of Planner sessions on any number of
+ * threads without locking. Sessions only hold their own filter states.
+ */
+public final class GameCatalog {
+
+  private final BoardGame[] games;
+  private final Map<BoardGame, Integer> ordinals;
+  private final NameIndex nameIndex;
+  /** Ordinal of the first game (by name) with each id. */
+  private final Map<Integer, Integer> byId;
+  /** Lowercase name of every game, by ordinal, as names are sorted ignoring case. */
+  private final String[] sortNames;
+  /** Numeric values of every game, per column (indexed by GameData ordinal), then ordinal. */
+  private final double[][] columns;
+  /** Smallest and largest value of every numeric column, indexed by GameData ordinal. */
+  private final double[] columnMins;
+  private final double[] columnMaxs;
+  private final FacetCounts facets;
+  /** The unfiltered state every session starts from; its rows must never be modified. */
+  private final FilterState unfiltered;
+  private final IntervalIndex playerRanges;
+  private final IntervalIndex timeRanges;
+  private final SimilarityIndex similarity;
+  /** Ordinals of every game in ascending order of each column, indexed by GameData ordinal. */
+  private final int[][] orders;
+  /** Positions in each order where a new value starts, indexed by GameData ordinal. */
+  private final BitSet[] runStarts;
+  /** Dense rank of every game's value, per column (indexed by GameData ordinal), then ordinal. */
+  private final int[][] ranks;
+
+  /**
+   * Constructor for the GameCatalog.
+   *
+   * @param games the full collection of board games
+   */
+  public GameCatalog(Collection<BoardGame> games) {
+    this.games = games.stream()
+        .sorted(Comparator.comparingInt(BoardGame::getId).thenComparing(BoardGame::getName))
+        .toArray(BoardGame[]::new);
+    this.ordinals = new HashMap<>(this.games.length * 2);
+    this.byId = new HashMap<>(this.games.length * 2);
+    for (int i = 0; i < this.games.length; i++) {
+      ordinals.put(this.games[i], i);
+      // ordinals are in id order, so the first game seen wins
+      byId.putIfAbsent(this.games[i].getId(), i);
+    }
+    this.nameIndex = new NameIndex(List.of(this.games));
+    this.sortNames = Stream.of(this.games).map(game -> game.getName().toLowerCase())
+        .toArray(String[]::new);
+    this.columns = new double[GameData.values().length][];
+    this.columnMins = new double[GameData.values().length];
+    this.columnMaxs = new double[GameData.values().length];
+    for (GameData col : GameData.values()) {
+      if (col.isNumeric()) {
+        double[] values = new double[this.games.length];
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < values.length; i++) {
+          values[i] = numericValue(this.games[i], col);
+          min = Math.min(min, values[i]);
+          max = Math.max(max, values[i]);
+        }
+        columns[col.ordinal()] = values;
+        columnMins[col.ordinal()] = min;
+        columnMaxs[col.ordinal()] = max;
+      }
+    }
+    this.facets = FacetCounts.of(this, all());
+    this.unfiltered = new FilterState(all(), facets, null);
+    this.playerRanges = new IntervalIndex(column(GameData.MIN_PLAYERS),
+        column(GameData.MAX_PLAYERS));
+    this.timeRanges = new IntervalIndex(column(GameData.MIN_TIME), column(GameData.MAX_TIME));
+    this.similarity = new SimilarityIndex(this);
+    this.orders = new int[GameData.values().length][];
+    this.runStarts = new BitSet[GameData.values().length];
+    this.ranks = new int[GameData.values().length][];
+    for (GameData col : GameData.values()) {
+      presort(col);
+    }
+  }
+
+  /**
+   * Gets the number of games in the catalog.
+   *
+   * @return number of games
+   */
+  public int size() {
+    return games.length;
+  }
+
+  /**
+   * Gets the game with the given ordinal.
+   *
+   * @param ordinal position of the game in the catalog
+   * @return the game at that ordinal
+   */
+  public BoardGame get(int ordinal) {
+    return games[ordinal];
+  }
+
+  /**
+   * Gets the ordinal of a game.
+   *
+   * @param game the game to look up
+   * @return the ordinal of the game, or -1 if it is not in the catalog
+   */
+  public int ordinalOf(BoardGame game) {
+    Integer ordinal = ordinals.get(game);
+    return ordinal == null ? -1 : ordinal;
+  }
+
+  /**
+   * Finds a game by name in O(1), ignoring case and extra whitespace. If
+   * several games have that name, the one with the lowest id is returned.
+   *
+   * @param name the name to look up
+   * @return the game, or null if no game has that name
+   */
+  public BoardGame findByName(String name) {
+    List<BoardGame> found = nameIndex.find(name);
+    return found.isEmpty() ? null : found.get(0);
+  }
+
+  /**
+   * Finds every game with a name in O(1), ignoring case and extra whitespace.
+   *
+   * @param name the name to look up
+   * @return the games, lowest id first, empty if none
+   */
+  public List<BoardGame> findAllByName(String name) {
+    return nameIndex.find(name);
+  }
+
+  /**
+   * Finds a game by id in O(1). If several games share the id, the first by
+   * name is returned.
+   *
+   * @param id the id to look up
+   * @return the game, or null if no game has that id
+   */
+  public BoardGame findById(int id) {
+    Integer ordinal = byId.get(id);
+    return ordinal == null ? null : games[ordinal];
+  }
+
+  /**
+   * Creates a bitmap with every game in the catalog set.
+   *
+   * @return bitmap of all ordinals
+   */
+  public BitSet all() {
+    BitSet rows = new BitSet(games.length);
+    rows.set(0, games.length);
+    return rows;
+  }
+
+  /**
+   * Streams the games whose ordinals are set in the bitmap, in ordinal order.
+   *
+   * @param rows bitmap of ordinals
+   * @return stream of matching games
+   */
+  public Stream<BoardGame> stream(BitSet rows) {
+    return rows.stream().mapToObj(i -> games[i]);
+  }
+
+  /**
+   * Materializes the games whose ordinals are set in the bitmap.
+   *
+   * @param rows bitmap of ordinals
+   * @return set of matching games
+   */
+  public Set<BoardGame> toSet(BitSet rows) {
+    return stream(rows).collect(Collectors.toSet());
+  }
+
+  /**
+   * Gets the facet counts of the whole catalog.
+   *
+   * @return facet counts of every game
+   */
+  public FacetCounts getFacets() {
+    return facets;
+  }
+
+  /**
+   * Gets the unfiltered state, with every game in the catalog. It is shared by
+   * every session, so its rows must not be modified.
+   *
+   * @return the state before any filter is applied
+   */
+  FilterState unfiltered() {
+    return unfiltered;
+  }
+
+  /**
+   * Suggests games whose names are close to a name that was not found.
+   *
+   * @param name the name that was not found
+   * @return close matches ordered by edit distance, then name
+   */
+  public List<BoardGame> suggest(String name) {
+    return nameIndex.suggest(name);
+  }
+
+  /**
+   * Finds the games most like a game, comparing rating, difficulty, player
+   * counts, play times and year.
+   *
+   * @param game the game to compare against
+   * @param k    the number of games to return
+   * @param rows bitmap of the games allowed in the result, or null for any game
+   * @return up to k games, most similar first, never including the game itself
+   * @throws IllegalArgumentException if k is negative
+   */
+  public List<BoardGame> similarTo(BoardGame game, int k, BitSet rows) {
+    return similarity.nearest(game, k, rows);
+  }
+
+  /**
+   * Gets the values of a numeric column for every game, indexed by ordinal.
+   *
+   * The array is shared, not copied, so callers must not modify it.
+   *
+   * @param column a numeric column
+   * @return values of the column by ordinal
+   * @throws IllegalArgumentException if the column is not numeric
+   */
+  double[] column(GameData column) {
+    if (!column.isNumeric()) {
+      throw new IllegalArgumentException("Column is not numeric: " + column.getColumnName());
+    }
+    return columns[column.ordinal()];
+  }
+
+  /**
+   * Finds the games whose min to max range contains a value, for example the
+   * games that support exactly 4 players.
+   *
+   * @param column either end of the player or play time range
+   * @param value  the player count or minutes
+   * @return bitmap of matching ordinals, owned by the caller
+   * @throws IllegalArgumentException if the column is not a range column
+   */
+  BitSet fits(GameData column, int value) {
+    switch (column) {
+      case MIN_PLAYERS:
+      case MAX_PLAYERS:
+        return playerRanges.stab(value);
+      case MIN_TIME:
+      case MAX_TIME:
+        return timeRanges.stab(value);
+      default:
+        throw new IllegalArgumentException("Column is not a range: " + column.getColumnName());
+    }
+  }
+
+  /**
+   * Gets the name a game is sorted by: its name in lowercase.
+   *
+   * @param ordinal position of the game in the catalog
+   * @return the lowercase name
+   */
+  String sortName(int ordinal) {
+    return sortNames[ordinal];
+  }
+
+  /**
+   * Gets the ordinals of every game in ascending order of a column, with equal
+   * values in ordinal order. Computed once when the catalog is built, so a
+   * sorted result can be produced by walking it instead of sorting.
+   *
+   * The array is shared, not copied, so callers must not modify it.
+   *
+   * @param column any column
+   * @return ordinals in ascending column order
+   */
+  int[] order(GameData column) {
+    return orders[column.ordinal()];
+  }
+
+  /**
+   * Gets the positions in order(column) where a new value starts, so runs of
+   * equal values can be found when walking the order backwards.
+   *
+   * The bitmap is shared, not copied, so callers must not modify it.
+   *
+   * @param column any column
+   * @return bitmap of run start positions
+   */
+  BitSet runStarts(GameData column) {
+    return runStarts[column.ordinal()];
+  }
+
+  /**
+   * Gets the dense rank of every game's value in a column: 0 for the smallest
+   * value, 1 for the next distinct value and so on. Equal values share a rank.
+   *
+   * The array is shared, not copied, so callers must not modify it.
+   *
+   * @param column any column
+   * @return ranks by ordinal
+   */
+  int[] ranks(GameData column) {
+    return ranks[column.ordinal()];
+  }
+
+  /**
+   * Gets the number of distinct values in a column.
+   *
+   * @param column any column
+   * @return one more than the highest rank, or 0 if the catalog is empty
+   */
+  int distinct(GameData column) {
+    return runStarts[column.ordinal()].cardinality();
+  }
+
+  /**
+   * Gets the smallest value of a numeric column across the catalog.
+   *
+   * @param column a numeric column
+   * @return the minimum, or positive infinity if the catalog is empty
+   */
+  double min(GameData column) {
+    return columnMins[column.ordinal()];
+  }
+
+  /**
+   * Gets the largest value of a numeric column across the catalog.
+   *
+   * @param column a numeric column
+   * @return the maximum, or negative infinity if the catalog is empty
+   */
+  double max(GameData column) {
+    return columnMaxs[column.ordinal()];
+  }
+
+  /**
+   * Computes the ascending order of a column, the starts of its runs of equal
+   * values and the rank of each game. Numeric columns are radix sorted; names are compared ignoring
+   * case, as GameSorter does.
+   *
+   * @param column the column to presort
+   */
+  private void presort(GameData column) {
+    int[] order;
+    BitSet starts = new BitSet(games.length);
+    if (column.isNumeric()) {
+      order = GameSorter.sortedOrdinals(this, all(), column, true);
+      double[] values = column(column);
+      for (int i = 0; i < order.length; i++) {
+        if (i == 0 || Double.compare(values[order[i - 1]], values[order[i]]) != 0) {
+          starts.set(i);
+        }
+      }
+    } else {
+      order = IntStream.range(0, games.length).boxed()
+          .sorted(Comparator.comparing(ordinal -> sortNames[ordinal]))
+          .mapToInt(Integer::intValue).toArray();
+      for (int i = 0; i < order.length; i++) {
+        if (i == 0 || !sortNames[order[i - 1]].equals(sortNames[order[i]])) {
+          starts.set(i);
+        }
+      }
+    }
+    int[] rank = new int[games.length];
+    for (int i = 0, run = -1; i < order.length; i++) {
+      if (starts.get(i)) {
+        run++;
+      }
+      rank[order[i]] = run;
+    }
+    orders[column.ordinal()] = order;
+    runStarts[column.ordinal()] = starts;
+    ranks[column.ordinal()] = rank;
+  }
+
+  /**
+   * Gets the value of a numeric column for a game.
+   *
+   * @param game   the game
+   * @param column the column to read
+   * @return value of the column, or NaN for the name column
+   */
+  private static double numericValue(BoardGame game, GameData column) {
+    switch (column) {
+      case ID:
+        return game.getId();
+      case RATING:
+        return game.getRating();
+      case DIFFICULTY:
+        return game.getDifficulty();
+      case RANK:
+        return game.getRank();
+      case MIN_PLAYERS:
+        return game.getMinPlayers();
+      case MAX_PLAYERS:
+        return game.getMaxPlayers();
+      case MIN_TIME:
+        return game.getMinPlayTime();
+      case MAX_TIME:
+        return game.getMaxPlayTime();
+      case YEAR:
+        return game.getYearPublished();
+      default:
+        return Double.NaN; // Name is not numeric
+    }
+  }
+}
@@ -45,6 +45,24 @@ public enum GameData {
         return columnName;
     }
 
+    /**
+     * Check if the column holds numbers (every column but name).
+     * 
+     * @return true if the column is numeric.
+     */
+    public boolean isNumeric() {
+        return this != NAME;
+    }
+
+    /**
+     * Check if the column holds decimal (double) values rather than whole numbers.
+     * 
+     * @return true for rating and difficulty.
+     */
+    public boolean isDecimal() {
+        return this == RATING || this == DIFFICULTY;
+    }
+
     /**
      * Get the enum from the column name.
      * 
@@ -0,0 +1,379 @@
+package student;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.util.Iterator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+
+/**
+ * Writes games to files: full records in CSV, JSON or NDJSON, or plain lines.
+ *
+ * Records are streamed, encoded straight into one large buffer that is
+ * written to a FileChannel whenever it fills, so exporting tens of thousands
+ * of games costs a handful of system calls and never holds the whole file in
+ * memory. Every file is written to a temporary file in the same directory and
+ * then renamed over the target, so readers see either the old file or the
+ * complete new one, never a partial file.
+ *
+ * CSV files use the collection's column names in the header, so they can be
+ * read back with GamesLoader as long as no name contains a comma.
+ */
+public final class GameExporter {
+
+  /** Bytes encoded before each write to the channel. */
+  private static final int BUFFER_BYTES = 1 << 18;
+
+  /** private constructor to prevent instantiation. */
+  private GameExporter() {
+  }
+
+  /**
+   * Exports games, every column of each, replacing the file atomically.
+   *
+   * @param games  the games to export, in the order to write them
+   * @param target the file to write
+   * @param format the format to write in
+   * @return the number of games written
+   * @throws IOException if the file cannot be written; the target is then unchanged
+   */
+  public static long export(Stream<BoardGame> games, Path target, ExportFormat format)
+      throws IOException {
+    StringBuilder record = new StringBuilder(256);
+    return writeAtomically(target, sink -> {
+      long count = 0;
+      if (format == ExportFormat.CSV) {
+        sink.write(csvHeader());
+      } else if (format == ExportFormat.JSON) {
+        sink.write("[");
+      }
+      for (Iterator<BoardGame> it = games.iterator(); it.hasNext();) {
+        record.setLength(0);
+        BoardGame game = it.next();
+        switch (format) {
+          case CSV:
+            appendCsv(record, game);
+            break;
+          case JSON:
+            record.append(count == 0 ? "\n" : ",\n");
+            appendJson(record, game);
+            break;
+          default:
+            appendJson(record, game);
+            record.append('\n');
+        }
+        sink.write(record);
+        count++;
+      }
+      if (format == ExportFormat.JSON) {
+        sink.write(count == 0 ? "]\n" : "\n]\n");
+      }
+      return count;
+    });
+  }
+
+  /**
+   * Writes lines of text, replacing the file atomically.
+   *
+   * @param lines  the lines to write, each followed by a line separator
+   * @param target the file to write
+   * @return the number of lines written
+   * @throws IOException if the file cannot be written; the target is then unchanged
+   */
+  public static long writeLines(Stream<String> lines, Path target) throws IOException {
+    String separator = System.lineSeparator();
+    return writeAtomically(target, sink -> {
+      long count = 0;
+      for (Iterator<String> it = lines.iterator(); it.hasNext();) {
+        sink.write(it.next());
+        sink.write(separator);
+        count++;
+      }
+      return count;
+    });
+  }
+
+  /**
+   * Writes a temporary file next to the target, forces it to disk, then
+   * moves it over the target and syncs the directory so the rename survives
+   * a crash. The temporary file is created with the usual default
+   * permissions, or the target's if it already exists, so replacing a file
+   * does not change who can read it. It is removed if anything fails.
+   */
+  private static long writeAtomically(Path target, Body body) throws IOException {
+    Path absolute = target.toAbsolutePath();
+    Path directory = absolute.getParent();
+    boolean moved = false;
+    Path temp = null;
+    try {
+      long count;
+      FileChannel channel = null;
+      while (channel == null) {
+        temp = directory.resolve(absolute.getFileName() + "."
+            + Long.toUnsignedString(ThreadLocalRandom.current().nextLong(), 36) + ".tmp");
+        try {
+          channel = FileChannel.open(temp, StandardOpenOption.CREATE_NEW,
+              StandardOpenOption.WRITE);
+        } catch (FileAlreadyExistsException e) {
+          temp = null;
+        }
+      }
+      try (FileChannel open = channel) {
+        copyPermissions(absolute, temp);
+        ChannelSink sink = new ChannelSink(open);
+        count = body.write(sink);
+        sink.finish();
+        open.force(true);
+      }
+      try {
+        Files.move(temp, absolute, StandardCopyOption.ATOMIC_MOVE,
+            StandardCopyOption.REPLACE_EXISTING);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING);
+      }
+      moved = true;
+      syncDirectory(directory);
+      return count;
+    } finally {
+      if (!moved && temp != null) {
+        Files.deleteIfExists(temp);
+      }
+    }
+  }
+
+  /**
+   * Gives a new file the POSIX permissions of the file it will replace, if
+   * there is one and the file system has them.
+   *
+   * @param existing the file being replaced
+   * @param created  the file replacing it
+   * @throws IOException if the permissions cannot be read or set
+   */
+  private static void copyPermissions(Path existing, Path created) throws IOException {
+    if (Files.exists(existing)
+        && Files.getFileStore(created).supportsFileAttributeView(PosixFileAttributeView.class)) {
+      Files.setPosixFilePermissions(created, Files.getPosixFilePermissions(existing));
+    }
+  }
+
+  /**
+   * Forces a directory's entries to disk, so files created, renamed or
+   * removed in it are still there after a crash. Does nothing where
+   * directories cannot be opened, as on Windows, which does not need it.
+   *
+   * @param directory the directory to sync
+   * @throws IOException if the sync itself fails
+   */
+  static void syncDirectory(Path directory) throws IOException {
+    FileChannel channel;
+    try {
+      channel = FileChannel.open(directory, StandardOpenOption.READ);
+    } catch (IOException e) {
+      return;
+    }
+    try (channel) {
+      channel.force(true);
+    }
+  }
+
+  /**
+   * Gets the CSV header line.
+   *
+   * @return the column names, in GameData order
+   */
+  private static String csvHeader() {
+    StringBuilder header = new StringBuilder();
+    for (GameData column : GameData.values()) {
+      if (header.length() > 0) {
+        header.append(',');
+      }
+      header.append(column.getColumnName());
+    }
+    return header.append('\n').toString();
+  }
+
+  /**
+   * Appends a game as a CSV row, quoting the name if it needs it.
+   *
+   * @param out  where to append
+   * @param game the game
+   */
+  private static void appendCsv(StringBuilder out, BoardGame game) {
+    for (GameData column : GameData.values()) {
+      if (column != GameData.NAME) {
+        out.append(',');
+        appendValue(out, game, column);
+        continue;
+      }
+      String name = game.getName();
+      if (name.indexOf(',') < 0 && name.indexOf('"') < 0 && name.indexOf('\n') < 0
+          && name.indexOf('\r') < 0) {
+        out.append(name);
+      } else {
+        out.append('"').append(name.replace("\"", "\"\"")).append('"');
+      }
+    }
+    out.append('\n');
+  }
+
+  /**
+   * Appends a game as a JSON object keyed by the collection's column names.
+   *
+   * @param out  where to append
+   * @param game the game
+   */
+  private static void appendJson(StringBuilder out, BoardGame game) {
+    out.append('{');
+    for (GameData column : GameData.values()) {
+      if (column != GameData.NAME) {
+        out.append(',');
+      }
+      out.append('"').append(column.getColumnName()).append("\":");
+      if (column == GameData.NAME) {
+        appendJsonString(out, game.getName());
+      } else {
+        appendValue(out, game, column);
+      }
+    }
+    out.append('}');
+  }
+
+  /**
+   * Appends a numeric column, whole numbers without a decimal point.
+   *
+   * @param out    where to append
+   * @param game   the game
+   * @param column a numeric column
+   */
+  private static void appendValue(StringBuilder out, BoardGame game, GameData column) {
+    switch (column) {
+      case ID:
+        out.append(game.getId());
+        break;
+      case RATING:
+        out.append(game.getRating());
+        break;
+      case DIFFICULTY:
+        out.append(game.getDifficulty());
+        break;
+      case RANK:
+        out.append(game.getRank());
+        break;
+      case MIN_PLAYERS:
+        out.append(game.getMinPlayers());
+        break;
+      case MAX_PLAYERS:
+        out.append(game.getMaxPlayers());
+        break;
+      case MIN_TIME:
+        out.append(game.getMinPlayTime());
+        break;
+      case MAX_TIME:
+        out.append(game.getMaxPlayTime());
+        break;
+      case YEAR:
+        out.append(game.getYearPublished());
+        break;
+      default:
+        throw new IllegalArgumentException("Not a numeric column: " + column);
+    }
+  }
+
+  /**
+   * Appends a JSON string literal, escaping quotes, backslashes and control
+   * characters.
+   *
+   * @param out   where to append
+   * @param value the string
+   */
+  private static void appendJsonString(StringBuilder out, String value) {
+    out.append('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '"' || c == '\\') {
+        out.append('\\').append(c);
+      } else if (c == '\n') {
+        out.append("\\n");
+      } else if (c == '\r') {
+        out.append("\\r");
+      } else if (c == '\t') {
+        out.append("\\t");
+      } else if (c < 0x20) {
+        out.append(String.format("\\u%04x", (int) c));
+      } else {
+        out.append(c);
+      }
+    }
+    out.append('"');
+  }
+
+  /** The part of a write that produces the content. */
+  private interface Body {
+    long write(ChannelSink sink) throws IOException;
+  }
+
+  /** Encodes text as UTF-8 into a buffer, writing it to the channel when full. */
+  private static final class ChannelSink {
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final CharsetEncoder encoder;
+
+    private ChannelSink(FileChannel channel) {
+      this.channel = channel;
+      this.buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+      this.encoder = StandardCharsets.UTF_8.newEncoder()
+          .onMalformedInput(CodingErrorAction.REPLACE)
+          .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+
+    /**
+     * Encodes text into the buffer. Each call must hold whole characters,
+     * not half of a surrogate pair.
+     */
+    private void write(CharSequence text) throws IOException {
+      CharBuffer in = CharBuffer.wrap(text);
+      while (true) {
+        CoderResult result = encoder.encode(in, buffer, false);
+        if (result.isOverflow()) {
+          drain();
+        } else if (result.isError()) {
+          result.throwException();
+        } else {
+          return;
+        }
+      }
+    }
+
+    /** Writes whatever is still buffered. */
+    private void finish() throws IOException {
+      while (encoder.encode(CharBuffer.allocate(0), buffer, true).isOverflow()) {
+        drain();
+      }
+      while (encoder.flush(buffer).isOverflow()) {
+        drain();
+      }
+      drain();
+    }
+
+    private void drain() throws IOException {
+      buffer.flip();
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      buffer.clear();
+    }
+  }
+}
@@ -1,108 +1,122 @@
 package student;
 
-import java.util.Set;
+import java.util.BitSet;
+import java.util.List;
 import java.util.stream.Collectors;
 
 public class GameFilter {
-  public Set<BoardGame> applyFilter(Set<BoardGame> games, String filter) {
-    String[] filterParts = filter.split(",");
+  /**
+   * Applies each clause of a filter to the current state of the history,
+   * pushing the resulting bitmap so every clause can later be undone on its own.
+   *
+   * The whole filter is parsed before anything is applied, so an invalid
+   * filter leaves the history untouched.
+   *
+   * @param catalog
+   * @param history
+   * @param filter
+   * @throws FilterParseException if the filter is not valid
+   */
+  public void applyFilter(GameCatalog catalog, FilterHistory history, String filter) {
+    applyFilter(catalog, history, filter, QueryContext.unbounded());
+  }
 
-    for (String filterPart : filterParts) {
-      // Get operator
-      Operations operator = Operations.getOperatorFromStr(filterPart);
-      if (operator == null) {
-        System.out.println("No operator detected");
-        continue;
-      }
+  /**
+   * Applies a filter like applyFilter, checking the query context as each
+   * clause scans the games. If the query stops, every clause of this filter
+   * is popped again, so the history is left as it was.
+   *
+   * @param catalog
+   * @param history
+   * @param filter
+   * @param context deadline and cancellation token of the query
+   * @throws FilterParseException  if the filter is not valid
+   * @throws QueryTimeoutException if the query stops, with the games found by then
+   */
+  public void applyFilter(GameCatalog catalog, FilterHistory history, String filter,
+      QueryContext context) {
+    List<FilterClause> clauses = FilterParser.parse(filter);
 
-      // Parse search term and column name
-      String[] parsedFilter = parseFilter(filterPart, operator);
-      GameData column;
-      try {
-        column = GameData.fromString(parsedFilter[0]);
-      } catch (IllegalArgumentException e) {
-        System.out.println(e);
-        return games;
+    int depth = history.depth();
+    try {
+      for (FilterClause clause : clauses) {
+        applyClause(catalog, history, clause, context);
       }
-
-      String searchTerm = parsedFilter[1];
-
-      // Apply filtering successively
-      games = games.stream().filter(game -> matchesFilter(game, column, operator, searchTerm))
-          .collect(Collectors.toSet());
+    } catch (QueryTimeoutException e) {
+      while (history.depth() > depth) {
+        history.pop();
+      }
+      throw e;
     }
-    return games;
   }
 
   /**
-   * Checks if a game matches filter
+   * Applies one parsed clause to the current state of the history and pushes
+   * the result, for example to replay a session's clauses on a new catalog.
    *
-   * @param game
-   * @param column
-   * @param operator
-   * @param searchTerm
-   * @return boolean of whether a game matches a given filter
+   * @param catalog
+   * @param history
+   * @param clause
    */
-  private boolean matchesFilter(BoardGame game, GameData column, Operations operator, String searchTerm) {
-    // We don't know the type of gameValue at compile time so we keep it generic
-    Object gameValue;
+  public void applyClause(GameCatalog catalog, FilterHistory history, FilterClause clause) {
+    applyClause(catalog, history, clause, QueryContext.unbounded());
+  }
 
-    switch (column) {
-      case NAME:
-        gameValue = game.getName();
-        break;
-      case ID:
-        gameValue = game.getId();
-        break;
-      case RATING:
-        gameValue = game.getRating();
-        break;
-      case DIFFICULTY:
-        gameValue = game.getDifficulty();
-        break;
-      case RANK:
-        gameValue = game.getRank();
-        break;
-      case MIN_PLAYERS:
-        gameValue = game.getMinPlayers();
-        break;
-      case MAX_PLAYERS:
-        gameValue = game.getMaxPlayers();
-        break;
-      case MIN_TIME:
-        gameValue = game.getMinPlayTime();
-        break;
-      case MAX_TIME:
-        gameValue = game.getMaxPlayTime();
-        break;
-      case YEAR:
-        gameValue = game.getYearPublished();
-        break;
-      default:
-        return false; // Unknown column
+  /**
+   * Applies one parsed clause, checking the query context every
+   * QueryContext.CHECK_INTERVAL games scanned. Nothing is pushed if the query
+   * stops.
+   *
+   * @param catalog
+   * @param history
+   * @param clause
+   * @param context deadline and cancellation token of the query
+   * @throws QueryTimeoutException if the query stops, with the games that
+   *                               matched this and every earlier clause by then
+   */
+  private void applyClause(GameCatalog catalog, FilterHistory history, FilterClause clause,
+      QueryContext context) {
+    // Only rows that survived the previous clause need to be tested
+    BitSet rows = history.current().getRows();
+    BitSet matches;
+    if (clause.getOperator() == Operations.FITS) {
+      // Answered by the catalog's interval index instead of testing each row
+      context.check();
+      matches = catalog.fits(clause.getColumn(), (int) clause.getNumber());
+      matches.and(rows);
+    } else {
+      matches = new BitSet(catalog.size());
+      try {
+        for (int i = rows.nextSetBit(0); i >= 0; i = rows.nextSetBit(i + 1)) {
+          context.tick();
+          if (matchesFilter(catalog, i, clause)) {
+            matches.set(i);
+          }
+        }
+      } catch (QueryTimeoutException e) {
+        throw new QueryTimeoutException(e.getMessage(),
+            catalog.stream(matches).collect(Collectors.toList()), false);
+      }
     }
-
-    return applyOperator(gameValue, operator, searchTerm);
-
+    history.push(clause, matches);
   }
 
   /**
-   * Applies the given operator to the value and searchTerm
+   * Checks if a game matches filter, reading numeric values from the
+   * catalog's primitive columns
    *
-   * @param value
-   * @param operator
-   * @param searchTerm
-   * @return call to applyStringOperator or applyNumericOperator, boolean
+   * @param catalog
+   * @param ordinal
+   * @param clause
+   * @return boolean of whether a game matches a given filter
    */
-  private boolean applyOperator(Object value, Operations operator, String searchTerm) {
-    if (value instanceof String) {
-      return applyStringOperator((String) value, operator, searchTerm);
-    } else if (value instanceof Integer) {
-      return applyNumericOperator((Integer) value, operator, parseInt(searchTerm));
-    } else if (value instanceof Double) {
-      return applyNumericOperator((Double) value, operator, parseDouble(searchTerm));
+  private boolean matchesFilter(GameCatalog catalog, int ordinal, FilterClause clause) {
+    if (!clause.getColumn().isNumeric()) {
+      return applyStringOperator(catalog.get(ordinal).getName(), clause.getOperator(),
+          clause.getLowerValue());
     }
-    return false;
+    return applyNumericOperator(catalog.column(clause.getColumn())[ordinal],
+        clause.getOperator(), clause.getNumber());
   }
 
   /**
@@ -110,25 +124,25 @@ public class GameFilter {
    *
    * @param value
    * @param operator
-   * @param searchTerm
-   * @return
+   * @param lowerSearchTerm search term already in lower case
+   * @return boolean of evaluation
    */
-  private boolean applyStringOperator(String value, Operations operator, String searchTerm) {
+  private boolean applyStringOperator(String value, Operations operator, String lowerSearchTerm) {
     switch (operator) {
       case EQUALS:
-        return value.equalsIgnoreCase(searchTerm);
+        return value.equalsIgnoreCase(lowerSearchTerm);
       case NOT_EQUALS:
-        return !value.equalsIgnoreCase(searchTerm);
+        return !value.equalsIgnoreCase(lowerSearchTerm);
       case CONTAINS:
-        return value.toLowerCase().contains(searchTerm.toLowerCase());
+        return value.toLowerCase().contains(lowerSearchTerm);
       case GREATER_THAN_EQUALS:
-        return value.toLowerCase().compareTo(searchTerm.toLowerCase()) >= 0;
+        return value.toLowerCase().compareTo(lowerSearchTerm) >= 0;
       case GREATER_THAN:
-        return value.toLowerCase().compareTo(searchTerm.toLowerCase()) > 0;
+        return value.toLowerCase().compareTo(lowerSearchTerm) > 0;
       case LESS_THAN_EQUALS:
-        return value.toLowerCase().compareTo(searchTerm.toLowerCase()) <= 0;
+        return value.toLowerCase().compareTo(lowerSearchTerm) <= 0;
       case LESS_THAN:
-        return value.toLowerCase().compareTo(searchTerm.toLowerCase()) < 0;
+        return value.toLowerCase().compareTo(lowerSearchTerm) < 0;
       default:
         return false; // Unsupported operator for Strings
     }
@@ -137,19 +151,13 @@ public class GameFilter {
   /**
    * Applies given operator to numeric value and searchTerm
    *
-   * @param <T>
-   * @param value
+   * @param gameNumber
    * @param operator
-   * @param searchTerm
+   * @param searchNumber
    * @return boolean of evaluation
    */
-  private <T extends Number> boolean applyNumericOperator(T value, Operations operator, T searchTerm) {
-    if (searchTerm == null)
-      return false;
-
-    double gameNumber = value.doubleValue();
-    double searchNumber = searchTerm.doubleValue();
-
+  private boolean applyNumericOperator(double gameNumber, Operations operator,
+      double searchNumber) {
     switch (operator) {
       case EQUALS:
         return gameNumber == searchNumber;
@@ -168,51 +176,4 @@ public class GameFilter {
     }
   }
 
-  /**
-   * Extracts integer from String safely
-   *
-   * @param str
-   * @return Integer from String
-   */
-  private Integer parseInt(String str) {
-    try {
-      return Integer.parseInt(str);
-    } catch (NumberFormatException e) {
-      return null; // Invalid number
-    }
-  }
-
-  /**
-   * Extracts double from String safely
-   * 
-   * @param str
-   * @return Double from String
-   */
-  private Double parseDouble(String str) {
-    try {
-      return Double.parseDouble(str);
-    } catch (NumberFormatException e) {
-      return null; // Invalid number
-    }
-  }
-
-  /**
-   * Utility method to parse a filter
-   * 
-   * @param filter
-   * @param operator
-   * @return An array of strings containing column and search term
-   */
-  public String[] parseFilter(String filter, Operations operator) {
-    // Split on operator while preserving spaces in search terms
-    String[] parsedFilter = filter.split(operator.getOperator(), 2); // Split into max 2 parts
-
-    if (parsedFilter.length < 2) {
-      throw new IllegalArgumentException("Input does not contain a valid operation");
-    }
-
-    // Trim spaces around the column name and search term
-    return new String[] { parsedFilter[0].trim(), parsedFilter[1].trim() };
-  }
-
 }
@@ -1,13 +1,20 @@
 package student;
 
 import java.util.Set;
-import java.util.HashSet;
-import java.io.BufferedWriter;
-import java.io.FileWriter;
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -18,13 +25,57 @@ public class GameList implements IGameList {
    */
   String ADD_ALL = "all";
 
-  private Set<BoardGame> games;
+  /** The listed games, in getGameNames order, indexable in O(log n). */
+  private final GameTree games;
+  /** The listed games by normalized name, each group in NameIndex.BY_ID order. */
+  private final Map<String, List<BoardGame>> byName;
+  private final GameCatalog catalog;
+  /** Where every change is recorded in durable mode, otherwise null. */
+  private final ListJournal journal;
 
   /**
    * Constructor for the GameList.
    */
   public GameList() {
-    this.games = new HashSet<>();
+    this(null);
+  }
+
+  /**
+   * Constructor for a GameList that can use the catalog's name index to
+   * suggest corrections for mistyped names.
+   *
+   * @param catalog the full board game collection, or null
+   */
+  public GameList(GameCatalog catalog) {
+    this.games = new GameTree();
+    this.byName = new HashMap<>();
+    this.catalog = catalog;
+    this.journal = null;
+  }
+
+  /**
+   * Constructor for a durable GameList, starting from the games the journal
+   * recovered. Every change is then recorded in the journal and synced before
+   * the method making it returns, one sync per call, so the list survives a
+   * restart without calling saveGame. The caller owns the journal and closes
+   * it when done with the list.
+   *
+   * @param catalog the full board game collection, or null
+   * @param journal the opened journal, used by no other list
+   */
+  public GameList(GameCatalog catalog, ListJournal journal) {
+    this.games = new GameTree();
+    this.byName = new HashMap<>();
+    this.catalog = catalog;
+    this.journal = journal;
+    // Already in the journal, so restored without recording them again
+    for (BoardGame game : journal.recovered()) {
+      int ordinal = catalog == null ? -1 : catalog.ordinalOf(game);
+      BoardGame restored = ordinal >= 0 ? catalog.get(ordinal) : game;
+      if (games.add(restored)) {
+        index(restored);
+      }
+    }
   }
 
   /**
@@ -35,8 +86,7 @@ public class GameList implements IGameList {
    */
   @Override
   public List<String> getGameNames() {
-    List<String> gameNames = games.stream().map(BoardGame::getName).collect(Collectors.toList());
-    return gameNames;
+    return names(games.toList());
   }
 
   /**
@@ -44,7 +94,8 @@ public class GameList implements IGameList {
    */
   @Override
   public void clear() {
-    games.clear();
+    clearGames();
+    commit();
   }
 
   /**
@@ -66,19 +117,76 @@ public class GameList implements IGameList {
    * 
    * Saves them in the same order as getGameNames.
    * 
+   * The file is replaced atomically, so a failed save leaves any earlier file
+   * intact; failures are reported rather than thrown.
+   * 
    * @param filename The name of the file to save the list to.
    */
   @Override
   public void saveGame(String filename) {
-    try (BufferedWriter writer = new BufferedWriter(new FileWriter(filename))) {
-      for (String gameName : this.getGameNames()) {
-        writer.write(gameName);
-        writer.newLine();
-      }
+    try {
+      GameExporter.writeLines(getGameNames().stream(), Path.of(filename));
       System.out.println("File written successfully");
-    } catch (IOException e) {
-      e.printStackTrace();
+    } catch (IOException | InvalidPathException e) {
+      System.err.println("Error writing file: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Loads a list saved with saveGame, adding its games to this list.
+   * 
+   * Each line is looked up in the catalog's name index, ignoring case, and a
+   * line that is only digits and matches no name is tried as a game id, so
+   * every entry costs O(1) however large the list and catalog are. Blank
+   * lines are skipped. Lines that match no game are reported in the result
+   * rather than stopping the load.
+   * 
+   * @param filename The name of the file to load the list from.
+   * @return what was added and which lines could not be resolved
+   * @throws IOException           if the file cannot be read
+   * @throws IllegalStateException if the list was created without a catalog
+   */
+  public ImportResult loadGame(String filename) throws IOException {
+    if (catalog == null) {
+      throw new IllegalStateException("Loading a list needs a catalog to resolve names");
+    }
+    int before = count();
+    int resolved = 0;
+    List<String> unresolved = new ArrayList<>();
+    try (BufferedReader reader = Files.newBufferedReader(Path.of(filename),
+        StandardCharsets.UTF_8)) {
+      for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+        String entry = line.trim();
+        if (entry.isEmpty()) {
+          continue;
+        }
+        BoardGame game = catalog.findByName(entry);
+        if (game == null && isDigits(entry)) {
+          game = catalog.findById(Integer.parseInt(entry));
+        }
+        if (game == null) {
+          unresolved.add(entry);
+        } else {
+          addGame(game);
+          resolved++;
+        }
+      }
+    } finally {
+      commit();
     }
+    return new ImportResult(count() - before, resolved, unresolved);
+  }
+
+  /**
+   * Exports the full record of every game in the list, in the same order as
+   * getGameNames, replacing the file atomically.
+   *
+   * @param filename the name of the file to export to
+   * @param format   the format to write in
+   * @throws IOException if the file cannot be written; it is then unchanged
+   */
+  public void exportGames(String filename, ExportFormat format) throws IOException {
+    GameExporter.export(games.toList().stream(), Path.of(filename), format);
   }
 
   /**
@@ -100,6 +208,10 @@ public class GameList implements IGameList {
    * If "all" is specified, then all games in the filtered collection should be
    * added to the list.
    * 
+   * Several selections can be given at once, separated by commas, such as
+   * "1-5,8,12-20,catan". They are all resolved against the same filtered
+   * games, and nothing is added unless every selection is valid.
+   * 
    * If any part of the string is not valid, an IllegalArgumentException should be
    * thrown. Such as
    * ranges being out of range.
@@ -116,58 +228,105 @@ public class GameList implements IGameList {
 
     // Clean search term
     String trimmedStr = str.trim().toLowerCase();
-
-    // Convert stream to list for manipulation
-    List<BoardGame> filteredList = filtered.collect(Collectors.toList());
-
-    // Case 1: Add all games to list
-    if (trimmedStr.matches(ADD_ALL)) {
-      games.addAll(filteredList);
-      return;
-    }
-
-    // Case 2: Check for range e.g. 1-5
-    if (trimmedStr.matches("\\d+-\\d+")) {
-      String[] range = trimmedStr.split("-");
-      int start = Integer.parseInt(range[0]);
-      int end = Integer.parseInt(range[1]);
-
-      // Validate range
-      if (start < 1 || end < start || end > filteredList.size()) {
-        throw new IllegalArgumentException("Invalid range: " + trimmedStr);
+    List<ListSelector> selectors = ListSelector.parse(trimmedStr);
+
+    // Numbers only need the games up to the highest one, not the whole stream
+    long needed = 0;
+    boolean needAll = false;
+    for (ListSelector selector : selectors) {
+      if (selector.getKind() == ListSelector.Kind.RANGE) {
+        needed = Math.max(needed, selector.getEnd());
+      } else {
+        needAll = true;
       }
+    }
+    List<BoardGame> filteredList = needAll ? filtered.collect(Collectors.toList())
+        : filtered.limit(needed).collect(Collectors.toList());
+    addSelections(trimmedStr, selectors, filteredList);
+  }
 
-      // Add games in provide range (accounting for 0 index)
-      for (int i = start - 1; i < end; i++) {
-        games.add(filteredList.get(i));
-      }
-      return;
+  /**
+   * Adds a game or games to the list, selecting from an already materialized
+   * result such as Planner.getLastResult(), so selecting by number is an
+   * index lookup instead of filtering and sorting again. The selection is
+   * read as for addToList(String, Stream).
+   *
+   * @param str      the string to parse and add games to the list.
+   * @param filtered the filtered games to select from, in the order they were shown.
+   * @throws IllegalArgumentException if the string is not valid.
+   */
+  public void addToList(String str, List<BoardGame> filtered) throws IllegalArgumentException {
+    if (str == null || str.isEmpty()) {
+      throw new IllegalArgumentException("Input cannot be null or empty.");
     }
+    String trimmedStr = str.trim().toLowerCase();
+    addSelections(trimmedStr, ListSelector.parse(trimmedStr), filtered);
+  }
 
-    // Case 3: Single number input
-    if (trimmedStr.matches("\\d+")) {
-      int index = Integer.parseInt(trimmedStr);
+  /**
+   * Resolves every selection against the filtered games, then adds them.
+   *
+   * @param trimmedStr   the whole selection, trimmed and in lower case
+   * @param selectors    its parsed pieces
+   * @param filteredList the games to select from; only as many as the highest
+   *                     index if there are no names or "all"
+   * @throws IllegalArgumentException if any selection is not valid
+   */
+  private void addSelections(String trimmedStr, List<ListSelector> selectors,
+      List<BoardGame> filteredList) {
+    boolean needAll = selectors.stream()
+        .anyMatch(selector -> selector.getKind() != ListSelector.Kind.RANGE);
+    Function<String, BoardGame> byName = needAll ? nameLookup(filteredList) : null;
+    try {
+      resolveAndAdd(trimmedStr, selectors, filteredList, byName);
+    } finally {
+      commit();
+    }
+  }
 
-      // Validate index
-      if (index < 1 || index > filteredList.size()) {
-        throw new IllegalArgumentException("Invalid selection: " + trimmedStr);
+  /**
+   * Adds the games the selections resolve to, or nothing if any is invalid.
+   *
+   * @param trimmedStr   the whole selection, trimmed and in lower case
+   * @param selectors    its parsed pieces
+   * @param filteredList the games to select from
+   * @param byName       finds a filtered game by name, or null if there are
+   *                     only indexes
+   * @throws IllegalArgumentException if any selection is not valid
+   */
+  private void resolveAndAdd(String trimmedStr, List<ListSelector> selectors,
+      List<BoardGame> filteredList, Function<String, BoardGame> byName) {
+    // A whole name takes priority over splitting it on commas
+    if (selectors.size() > 1 && byName != null) {
+      BoardGame whole = byName.apply(trimmedStr);
+      if (whole != null) {
+        addGame(whole);
+        return;
       }
-
-      // Add single game (adjusted for 0 index)
-      games.add(filteredList.get(index - 1));
-      return;
     }
 
-    // Case 4: Game name
-    Optional<BoardGame> game = filteredList.stream()
-        .filter(g -> g.getName().toLowerCase().equals(trimmedStr))
-        .findFirst();
-
-    if (game.isPresent()) {
-      games.add(game.get());
-    } else {
-      throw new IllegalArgumentException("Game not found: " + trimmedStr);
+    // Resolve every selection before adding, so an invalid one adds nothing
+    List<BoardGame> toAdd = new ArrayList<>();
+    for (ListSelector selector : selectors) {
+      switch (selector.getKind()) {
+        case ALL:
+          toAdd.addAll(filteredList);
+          break;
+        case RANGE:
+          selector.checkRange(filteredList.size());
+          // Accounting for 0 index
+          toAdd.addAll(filteredList.subList(selector.getStart() - 1, selector.getEnd()));
+          break;
+        default:
+          String name = selector.getText();
+          BoardGame game = byName.apply(name);
+          if (game == null) {
+            throw new GameNotFoundException(name, suggestFrom(filteredList, name));
+          }
+          toAdd.add(game);
+      }
     }
+    toAdd.forEach(this::addGame);
   }
 
   /**
@@ -181,6 +340,10 @@ public class GameList implements IGameList {
    * 
    * If all is provided, then clear should be called.
    * 
+   * Several selections can be given at once, separated by commas, such as
+   * "1-5,8,catan". Indexes refer to the list as it was before the call, and
+   * nothing is removed unless every selection is valid.
+   * 
    * If any part of the string is not valid, an IllegalArgumentException should be
    * thrown. Such as
    * ranges being out of range, or none of the results doing anything.
@@ -196,61 +359,266 @@ public class GameList implements IGameList {
       throw new IllegalArgumentException("Input cannot be null or empty.");
     }
 
-    // Clean search term
-    String trimmedStr = str.trim().toLowerCase();
+    try {
+      removeSelections(str.trim().toLowerCase());
+    } finally {
+      commit();
+    }
+  }
 
-    // Convert to list to allow indexing
-    List<BoardGame> gameList = new ArrayList<>(games);
+  /**
+   * Resolves every selection against the list, then removes them.
+   *
+   * @param trimmedStr the whole selection, trimmed and in lower case
+   * @throws IllegalArgumentException if any selection is not valid
+   */
+  private void removeSelections(String trimmedStr) {
+    List<ListSelector> selectors = ListSelector.parse(trimmedStr);
+
+    // A whole name takes priority over splitting it on commas
+    if (selectors.size() > 1) {
+      BoardGame whole = findListed(trimmedStr);
+      if (whole != null) {
+        removeGame(whole);
+        return;
+      }
+    }
 
-    // Case 1: Remove a all games from the list
-    if (trimmedStr.matches(ADD_ALL)) {
-      games.clear();
+    // A single range is split out of the tree in one step
+    if (selectors.size() == 1 && selectors.get(0).getKind() == ListSelector.Kind.RANGE) {
+      ListSelector range = selectors.get(0);
+      range.checkRange(games.size());
+      games.removeRange(range.getStart() - 1, range.getEnd()).forEach(this::forget);
       return;
     }
 
-    // Case 2: Check for range e.g. 1-5
-    if (trimmedStr.matches("\\d+-\\d+")) {
-      String[] range = trimmedStr.split("-");
-      int start = Integer.parseInt(range[0]);
-      int end = Integer.parseInt(range[1]);
+    // Resolve every selection against the list as it is now, then remove them together
+    boolean removeAll = false;
+    List<BoardGame> toRemove = new ArrayList<>();
+    for (ListSelector selector : selectors) {
+      switch (selector.getKind()) {
+        case ALL:
+          removeAll = true;
+          break;
+        case RANGE:
+          selector.checkRange(games.size());
+          for (int i = selector.getStart() - 1; i < selector.getEnd(); i++) {
+            toRemove.add(games.get(i));
+          }
+          break;
+        default:
+          String name = selector.getText();
+          BoardGame named = findListed(name);
+          if (named == null) {
+            throw new GameNotFoundException(name, suggestFrom(games.toList(), name));
+          }
+          toRemove.add(named);
+      }
+    }
+    if (removeAll) {
+      clearGames();
+    } else {
+      toRemove.forEach(this::removeGame);
+    }
+  }
+
+  /**
+   * Gets the games in the list, for example to save a session's list away.
+   *
+   * @return a copy of the games in the list, in order
+   */
+  List<BoardGame> getGames() {
+    return games.toList();
+  }
 
-      // Validate range
-      if (start < 1 || end < start || end > games.size()) {
-        throw new IllegalArgumentException("Invalid range: " + trimmedStr);
+  /**
+   * Adds games to the list directly, for example to restore a session's list.
+   *
+   * @param toAdd the games to add
+   */
+  void addGames(Iterable<BoardGame> toAdd) {
+    toAdd.forEach(this::addGame);
+    commit();
+  }
+
+  /**
+   * Adds a game to the list and its name map.
+   *
+   * @param game the game to add
+   */
+  private void addGame(BoardGame game) {
+    if (games.add(game)) {
+      index(game);
+      if (journal != null) {
+        journal.add(game);
       }
+    }
+  }
 
-      // Collect elements to remove
-      List<BoardGame> toRemove = new ArrayList<>(gameList.subList(start - 1, end));
+  /**
+   * Removes a game from the list and its name map.
+   *
+   * @param game the game to remove
+   */
+  private void removeGame(BoardGame game) {
+    if (games.remove(game)) {
+      forget(game);
+    }
+  }
 
-      // Remove games in provided range (accounting for 0 index)
-      games.removeAll(toRemove);
-      return;
+  /**
+   * Drops a game already taken out of the tree from the name map, and
+   * records its removal.
+   *
+   * @param game the removed game
+   */
+  private void forget(BoardGame game) {
+    unindex(game);
+    if (journal != null) {
+      journal.remove(game);
     }
+  }
 
-    // Case 3: Single number input
-    if (trimmedStr.matches("\\d+")) {
-      int index = Integer.parseInt(trimmedStr);
+  /**
+   * Adds a listed game to the name map, in O(1) expected time plus the few
+   * games that share its name.
+   *
+   * @param game a game just added to the tree
+   */
+  private void index(BoardGame game) {
+    List<BoardGame> named = byName.computeIfAbsent(NameIndex.normalize(game.getName()),
+        key -> new ArrayList<>(1));
+    int position = Collections.binarySearch(named, game, NameIndex.BY_ID);
+    named.add(position < 0 ? -position - 1 : position, game);
+  }
 
-      // Validate index
-      if (index < 1 || index > games.size()) {
-        throw new IllegalArgumentException("Invalid selection: " + trimmedStr);
-      }
+  /**
+   * Drops a game from the name map, and the name itself once no listed game
+   * has it, so the map never holds more names than the list.
+   *
+   * @param game a game just taken out of the tree
+   */
+  private void unindex(BoardGame game) {
+    String key = NameIndex.normalize(game.getName());
+    List<BoardGame> named = byName.get(key);
+    if (named != null && named.remove(game) && named.isEmpty()) {
+      byName.remove(key);
+    }
+  }
+
+  /**
+   * Finds a listed game by name in O(1), ignoring case and extra whitespace.
+   * If several listed games have that name, the one with the lowest id is
+   * found.
+   *
+   * @param name the name to look up
+   * @return the game, or null if no listed game has that name
+   */
+  private BoardGame findListed(String name) {
+    List<BoardGame> named = byName.get(NameIndex.normalize(name));
+    return named == null ? null : named.get(0);
+  }
+
+  /**
+   * Removes every game and records it, without syncing.
+   */
+  private void clearGames() {
+    games.clear();
+    byName.clear();
+    if (journal != null) {
+      journal.clear();
+    }
+  }
 
-      // Remove a single game (adjusted for 0 index)
-      games.remove(gameList.get(index - 1));
+  /**
+   * In durable mode, syncs the changes made by the current call to the
+   * journal, then compacts the journal into a snapshot once it has grown
+   * much larger than the list.
+   *
+   * @throws UncheckedIOException if the journal cannot be written
+   */
+  private void commit() {
+    if (journal == null) {
       return;
     }
+    try {
+      journal.commit();
+      if (journal.needsCompaction(games.size())) {
+        journal.compact(games.toList());
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not write the list journal", e);
+    }
+  }
+
+  /**
+   * Suggests names from the filtered games that are close to a name that was
+   * not found. Uses the catalog's prebuilt index when one is available, so
+   * only a miss pays for building an index over the filtered games.
+   *
+   * @param filteredList the games the name was looked up in
+   * @param name         the name that was not found
+   * @return names of close matches, closest first
+   */
+  private List<String> suggestFrom(List<BoardGame> filteredList, String name) {
+    if (catalog == null) {
+      return names(new NameIndex(filteredList).suggest(name));
+    }
+    Set<BoardGame> filtered = new HashSet<>(filteredList);
+    return names(catalog.suggest(name).stream().filter(filtered::contains)
+        .collect(Collectors.toList()));
+  }
 
-    // Case 4: Remove named game
-    Optional<BoardGame> game = games.stream()
-        .filter(g -> g.getName().toLowerCase().equals(trimmedStr))
-        .findFirst();
+  /**
+   * Creates an O(1) name lookup over the filtered games, ignoring case and
+   * extra whitespace. If several filtered games share a name, the one with the
+   * lowest id is found.
+   *
+   * A ResultView is looked up through the name index of its own catalog,
+   * which may be newer than this list's, so nothing is built. Other lists are
+   * indexed once, however many names are then looked up.
+   *
+   * @param filteredList the games to look in
+   * @return finds a game by name, or gives null
+   */
+  private Function<String, BoardGame> nameLookup(List<BoardGame> filteredList) {
+    if (filteredList instanceof ResultView) {
+      return ((ResultView) filteredList)::findByName;
+    }
+    Map<String, BoardGame> byName = new HashMap<>(filteredList.size() * 2);
+    for (BoardGame game : filteredList) {
+      byName.merge(NameIndex.normalize(game.getName()), game,
+          (kept, other) -> NameIndex.BY_ID.compare(other, kept) < 0 ? other : kept);
+    }
+    return name -> byName.get(NameIndex.normalize(name));
+  }
 
-    if (game.isPresent()) {
-      games.remove(game.get());
-    } else {
-      throw new IllegalArgumentException("Game not found: " + trimmedStr);
+  /**
+   * Checks if an entry could be a game id.
+   *
+   * @param entry a trimmed, non-empty line
+   * @return true if it is at most nine digits
+   */
+  private static boolean isDigits(String entry) {
+    if (entry.length() > 9) {
+      return false;
+    }
+    for (int i = 0; i < entry.length(); i++) {
+      if (entry.charAt(i) < '0' || entry.charAt(i) > '9') {
+        return false;
+      }
     }
+    return true;
+  }
+
+  /**
+   * Maps games to their names.
+   *
+   * @param games
+   * @return list of names in the same order
+   */
+  private static List<String> names(List<BoardGame> games) {
+    return games.stream().map(BoardGame::getName).collect(Collectors.toList());
   }
 
 }
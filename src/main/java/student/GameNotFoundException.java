@@ -0,0 +1,36 @@
+package student;
+
+import java.util.List;
+
+/**
+ * Thrown when a game name given to a list command does not match any game.
+ *
+ * Carries the names of close matches, if any, so the caller can offer a
+ * correction.
+ */
+public class GameNotFoundException extends IllegalArgumentException {
+
+  private static final long serialVersionUID = 1L;
+
+  private final List<String> suggestions;
+
+  /**
+   * Constructor for the GameNotFoundException.
+   *
+   * @param name        the name that was not found
+   * @param suggestions names of close matches, closest first
+   */
+  public GameNotFoundException(String name, List<String> suggestions) {
+    super("Game not found: " + name);
+    this.suggestions = List.copyOf(suggestions);
+  }
+
+  /**
+   * Gets the names of close matches.
+   *
+   * @return names of close matches, closest first, empty if none
+   */
+  public List<String> getSuggestions() {
+    return suggestions;
+  }
+}
@@ -0,0 +1,188 @@
+package student;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Splits a sorted filter result into pages using keyset pagination.
+ *
+ * A cursor records the sort and the sort values, id and name of the last game
+ * on a page. The next page is the page size smallest games that sort after
+ * those values, found in one pass over the filtered games with a bounded
+ * heap, so no page needs the games before it to be sorted or skipped. As the
+ * cursor holds values rather than positions, it stays valid if the filter
+ * result changes in between: games are neither repeated nor skipped.
+ *
+ * Games are ordered as GameSorter orders them, with ties on every sort column
+ * broken by id and then name.
+ */
+public class GamePager {
+
+  /** Written first in every cursor, so stale or foreign cursors are rejected. */
+  private static final int CURSOR_VERSION = 1;
+
+  /**
+   * Gets a page of the filtered games.
+   *
+   * @param catalog  the catalog the bitmap refers to
+   * @param rows     bitmap of the filtered games
+   * @param sortOn   the sort order
+   * @param pageSize the most games to return
+   * @param cursor   cursor from the previous page, or null for the first page
+   * @return the page
+   * @throws IllegalArgumentException if the page size is less than 1, or the
+   *                                  cursor is not valid for this sort
+   */
+  public ResultPage page(GameCatalog catalog, BitSet rows, SortSpec sortOn, int pageSize,
+      String cursor) {
+    if (pageSize < 1) {
+      throw new IllegalArgumentException("Page size must be at least 1: " + pageSize);
+    }
+    Position after = cursor == null ? null : decode(cursor, sortOn);
+
+    // keep the pageSize + 1 first games after the cursor; the extra one only
+    // tells whether there is a next page. The heap's head is the last of them.
+    PriorityQueue<Integer> first = new PriorityQueue<>(pageSize + 2,
+        (a, b) -> compare(catalog, sortOn, b, a));
+    for (int i = rows.nextSetBit(0); i >= 0; i = rows.nextSetBit(i + 1)) {
+      if (after != null && after.compareTo(catalog, sortOn, i) >= 0) {
+        continue;
+      }
+      if (first.size() <= pageSize) {
+        first.add(i);
+      } else if (compare(catalog, sortOn, i, first.peek()) < 0) {
+        first.poll();
+        first.add(i);
+      }
+    }
+
+    boolean more = first.size() > pageSize;
+    if (more) {
+      first.poll();
+    }
+    List<Integer> ordinals = new ArrayList<>(first);
+    ordinals.sort((a, b) -> compare(catalog, sortOn, a, b));
+    List<BoardGame> games = new ArrayList<>(ordinals.size());
+    for (int ordinal : ordinals) {
+      games.add(catalog.get(ordinal));
+    }
+    String next = more ? encode(catalog, sortOn, ordinals.get(ordinals.size() - 1)) : null;
+    return new ResultPage(games, next);
+  }
+
+  /**
+   * Compares two catalog games in sort order, using the catalog's ranks.
+   * Ordinal order is id, then name, order.
+   */
+  private static int compare(GameCatalog catalog, SortSpec sortOn, int a, int b) {
+    for (int k = 0; k < sortOn.size(); k++) {
+      int[] ranks = catalog.ranks(sortOn.getColumn(k));
+      int compare = Integer.compare(ranks[a], ranks[b]);
+      if (compare != 0) {
+        return sortOn.isAscending(k) ? compare : -compare;
+      }
+    }
+    return Integer.compare(a, b);
+  }
+
+  /**
+   * Encodes the position of a game as a cursor.
+   *
+   * @param catalog the catalog the ordinal refers to
+   * @param sortOn  the sort the cursor is for
+   * @param ordinal the last game on the page
+   * @return URL safe base64 text
+   */
+  private static String encode(GameCatalog catalog, SortSpec sortOn, int ordinal) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      out.writeInt(CURSOR_VERSION);
+      out.writeUTF(sortOn.toString());
+      for (int k = 0; k < sortOn.size(); k++) {
+        GameData column = sortOn.getColumn(k);
+        if (column.isNumeric()) {
+          out.writeDouble(catalog.column(column)[ordinal]);
+        } else {
+          out.writeUTF(catalog.sortName(ordinal));
+        }
+      }
+      out.writeInt(catalog.get(ordinal).getId());
+      out.writeUTF(catalog.get(ordinal).getName());
+    } catch (IOException e) {
+      throw new IllegalStateException(e); // not thrown by in memory streams
+    }
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+  }
+
+  /**
+   * Decodes a cursor.
+   *
+   * @param cursor text from encode
+   * @param sortOn the sort the cursor must be for
+   * @return the position the cursor holds
+   * @throws IllegalArgumentException if the cursor is malformed or for another sort
+   */
+  private static Position decode(String cursor, SortSpec sortOn) {
+    try (DataInputStream in = new DataInputStream(
+        new ByteArrayInputStream(Base64.getUrlDecoder().decode(cursor)))) {
+      if (in.readInt() != CURSOR_VERSION || !in.readUTF().equals(sortOn.toString())) {
+        throw new IllegalArgumentException("Cursor does not match the sort: " + sortOn);
+      }
+      double[] numbers = new double[sortOn.size()];
+      String[] names = new String[sortOn.size()];
+      for (int k = 0; k < sortOn.size(); k++) {
+        if (sortOn.getColumn(k).isNumeric()) {
+          numbers[k] = in.readDouble();
+        } else {
+          names[k] = in.readUTF();
+        }
+      }
+      return new Position(numbers, names, in.readInt(), in.readUTF());
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Invalid cursor", e);
+    }
+  }
+
+  /** The sort values, id and name of the last game on a page. */
+  private static final class Position {
+    private final double[] numbers;
+    private final String[] names;
+    private final int id;
+    private final String name;
+
+    private Position(double[] numbers, String[] names, int id, String name) {
+      this.numbers = numbers;
+      this.names = names;
+      this.id = id;
+      this.name = name;
+    }
+
+    /**
+     * Compares this position to a catalog game in sort order.
+     *
+     * @return negative if the game sorts after this position
+     */
+    private int compareTo(GameCatalog catalog, SortSpec sortOn, int ordinal) {
+      for (int k = 0; k < sortOn.size(); k++) {
+        GameData column = sortOn.getColumn(k);
+        int compare = column.isNumeric()
+            ? Double.compare(numbers[k], catalog.column(column)[ordinal])
+            : names[k].compareTo(catalog.sortName(ordinal));
+        if (compare != 0) {
+          return sortOn.isAscending(k) ? compare : -compare;
+        }
+      }
+      BoardGame game = catalog.get(ordinal);
+      int compare = Integer.compare(id, game.getId());
+      return compare != 0 ? compare : name.compareTo(game.getName());
+    }
+  }
+}
@@ -1,11 +1,30 @@
 package student;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.IntConsumer;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import java.util.Map;
 import java.util.Comparator;
 
 public class GameSorter {
 
+  /** Bits sorted per radix pass, and the number of passes over a 64 bit key. */
+  private static final int RADIX_BITS = 8;
+  private static final int RADIX = 1 << RADIX_BITS;
+  private static final int PASSES = Long.SIZE / RADIX_BITS;
+  /**
+   * Results smaller than this share of the catalog are sorted directly, as
+   * walking the whole presorted order would mostly skip games.
+   */
+  private static final int WALK_DIVISOR = 32;
+
   private static final Map<GameData, Comparator<BoardGame>> COMPARATORS = Map.of(
       GameData.NAME, Comparator.comparing(game -> game.getName().toLowerCase()),
       GameData.ID, Comparator.comparing(BoardGame::getId),
@@ -25,4 +44,300 @@ public class GameSorter {
     }
     return games.sorted(comparator);
   }
+
+  /**
+   * Sorts the filtered games of a catalog.
+   *
+   * Usually this does not sort at all: it walks the catalog's presorted order
+   * of the column, forwards or backwards, and keeps the games set in the
+   * bitmap. The walk is lazy, so the first games are available before the
+   * rest of the result is known. Small results are sorted directly instead,
+   * with a radix sort for numeric columns. Games with equal values stay in
+   * ordinal (id) order either way, as with the stable comparator sort.
+   *
+   * @param catalog   the catalog the bitmap refers to
+   * @param rows      bitmap of the games to sort; must not change while the stream is used
+   * @param sortOn    the column to sort on
+   * @param ascending true for ascending order
+   * @return the games in sorted order
+   */
+  public Stream<BoardGame> sort(GameCatalog catalog, BitSet rows, GameData sortOn,
+      boolean ascending) {
+    return sort(catalog, rows, sortOn, ascending, QueryContext.unbounded());
+  }
+
+  /**
+   * Sorts the filtered games of a catalog on one column, checking the query
+   * context as games are visited.
+   */
+  private Stream<BoardGame> sort(GameCatalog catalog, BitSet rows, GameData sortOn,
+      boolean ascending, QueryContext context) {
+    int count = rows.cardinality();
+    if (count < catalog.size() / WALK_DIVISOR) {
+      if (!sortOn.isNumeric()) {
+        return sort(catalog.stream(rows).peek(game -> context.tick()), sortOn, ascending);
+      }
+      return Arrays.stream(sortedOrdinals(catalog, rows, sortOn, ascending, context))
+          .mapToObj(catalog::get);
+    }
+    PresortedWalk walk = new PresortedWalk(catalog.order(sortOn), catalog.runStarts(sortOn),
+        rows, count, ascending, context);
+    return StreamSupport.intStream(walk, false).mapToObj(catalog::get);
+  }
+
+  /**
+   * Sorts the filtered games of a catalog on several columns.
+   *
+   * Each game's dense rank in every column is packed into one long, most
+   * significant column in the highest bits and descending columns inverted,
+   * and the longs are radix sorted. If the ranks need more than 64 bits
+   * together, the ranks are compared one column at a time instead. Games equal
+   * on every column are ordered by ordinal, which is id order.
+   *
+   * @param catalog the catalog the bitmap refers to
+   * @param rows    bitmap of the games to sort
+   * @param spec    the columns and directions to sort on
+   * @return the games in sorted order
+   */
+  public Stream<BoardGame> sort(GameCatalog catalog, BitSet rows, SortSpec spec) {
+    return sort(catalog, rows, spec, QueryContext.unbounded());
+  }
+
+  /**
+   * Sorts the filtered games of a catalog into a list, checking the query
+   * context every QueryContext.CHECK_INTERVAL games handled, so a large sort
+   * can be stopped part way.
+   *
+   * @param catalog the catalog the bitmap refers to
+   * @param rows    bitmap of the games to sort
+   * @param spec    the columns and directions to sort on
+   * @param context deadline and cancellation token of the query
+   * @return the games in sorted order
+   * @throws QueryTimeoutException if the query stops: with the sorted games so
+   *                               far if any were produced, or else with all
+   *                               the filtered games unsorted
+   */
+  public List<BoardGame> sortToList(GameCatalog catalog, BitSet rows, SortSpec spec,
+      QueryContext context) {
+    List<BoardGame> sorted = new ArrayList<>(rows.cardinality());
+    try {
+      sort(catalog, rows, spec, context).forEachOrdered(sorted::add);
+    } catch (QueryTimeoutException e) {
+      if (sorted.isEmpty()) {
+        throw new QueryTimeoutException(e.getMessage(),
+            catalog.stream(rows).collect(Collectors.toList()), false);
+      }
+      throw new QueryTimeoutException(e.getMessage(), sorted, true);
+    }
+    return sorted;
+  }
+
+  /**
+   * Sorts the filtered games of a catalog on several columns, checking the
+   * query context as keys are built and sorted.
+   */
+  private Stream<BoardGame> sort(GameCatalog catalog, BitSet rows, SortSpec spec,
+      QueryContext context) {
+    if (spec.size() == 1) {
+      return sort(catalog, rows, spec.getColumn(0), spec.isAscending(0), context);
+    }
+    int[][] ranks = new int[spec.size()][];
+    int[] bits = new int[spec.size()];
+    int totalBits = 0;
+    for (int k = 0; k < spec.size(); k++) {
+      GameData column = spec.getColumn(k);
+      ranks[k] = catalog.ranks(column);
+      int highestRank = Math.max(0, catalog.distinct(column) - 1);
+      bits[k] = Integer.SIZE - Integer.numberOfLeadingZeros(highestRank);
+      totalBits += bits[k];
+    }
+
+    int[] ordinals = rows.stream().toArray();
+    if (totalBits <= Long.SIZE) {
+      long[] keys = new long[ordinals.length];
+      for (int i = 0; i < ordinals.length; i++) {
+        context.tick();
+        long key = 0;
+        for (int k = 0; k < ranks.length; k++) {
+          long rank = ranks[k][ordinals[i]];
+          if (!spec.isAscending(k)) {
+            rank = ~rank & ((1L << bits[k]) - 1);
+          }
+          key = (key << bits[k]) | rank;
+        }
+        keys[i] = key;
+      }
+      radixSort(keys, ordinals, context);
+      return Arrays.stream(ordinals).mapToObj(catalog::get);
+    }
+
+    boolean[] ascending = new boolean[spec.size()];
+    for (int k = 0; k < ascending.length; k++) {
+      ascending[k] = spec.isAscending(k);
+    }
+    return Arrays.stream(ordinals).boxed()
+        .sorted((a, b) -> {
+          context.tick();
+          for (int k = 0; k < ranks.length; k++) {
+            int compare = Integer.compare(ranks[k][a], ranks[k][b]);
+            if (compare != 0) {
+              return ascending[k] ? compare : -compare;
+            }
+          }
+          return Integer.compare(a, b);
+        })
+        .map(catalog::get);
+  }
+
+  /**
+   * Radix sorts the ordinals set in a bitmap by a numeric column.
+   *
+   * @param catalog   the catalog the bitmap refers to
+   * @param rows      bitmap of the games to sort
+   * @param sortOn    a numeric column
+   * @param ascending true for ascending order
+   * @return the ordinals in sorted order, ties in ordinal order
+   */
+  static int[] sortedOrdinals(GameCatalog catalog, BitSet rows, GameData sortOn,
+      boolean ascending) {
+    return sortedOrdinals(catalog, rows, sortOn, ascending, QueryContext.unbounded());
+  }
+
+  /**
+   * Radix sorts the ordinals set in a bitmap by a numeric column, checking the
+   * query context as keys are built and once per radix pass.
+   */
+  private static int[] sortedOrdinals(GameCatalog catalog, BitSet rows, GameData sortOn,
+      boolean ascending, QueryContext context) {
+    double[] values = catalog.column(sortOn);
+    int[] ordinals = rows.stream().toArray();
+    long[] keys = new long[ordinals.length];
+    for (int i = 0; i < ordinals.length; i++) {
+      context.tick();
+      keys[i] = sortKey(values[ordinals[i]], ascending);
+    }
+    radixSort(keys, ordinals, context);
+    return ordinals;
+  }
+
+  /**
+   * Encodes a value as a long whose unsigned order matches Double.compare, so
+   * it can be radix sorted. Negative values have every bit flipped and others
+   * only the sign bit; descending order flips the whole key.
+   *
+   * @param value     the value to encode
+   * @param ascending true for ascending order
+   * @return the sort key
+   */
+  static long sortKey(double value, boolean ascending) {
+    long bits = Double.doubleToLongBits(value);
+    long key = bits < 0 ? ~bits : bits ^ Long.MIN_VALUE;
+    return ascending ? key : ~key;
+  }
+
+  /**
+   * Stable least significant digit radix sort of unsigned keys, moving the
+   * ordinals along with them. All digit histograms are counted in one pass,
+   * and digits that are the same in every key (such as the high bytes of small
+   * whole numbers) are skipped.
+   *
+   * @param keys     sort keys, sorted in place
+   * @param ordinals ordinal of each key, permuted in place
+   * @param context  checked before each pass
+   */
+  private static void radixSort(long[] keys, int[] ordinals, QueryContext context) {
+    int n = keys.length;
+    int[][] counts = new int[PASSES][RADIX];
+    for (long key : keys) {
+      for (int pass = 0; pass < PASSES; pass++) {
+        counts[pass][(int) (key >>> (pass * RADIX_BITS)) & (RADIX - 1)]++;
+      }
+    }
+
+    long[] keyBuffer = new long[n];
+    int[] ordinalBuffer = new int[n];
+    long[] fromKeys = keys;
+    int[] fromOrdinals = ordinals;
+    for (int pass = 0; pass < PASSES; pass++) {
+      int[] count = counts[pass];
+      int shift = pass * RADIX_BITS;
+      if (n == 0 || count[(int) (fromKeys[0] >>> shift) & (RADIX - 1)] == n) {
+        continue;
+      }
+      context.check();
+      int offset = 0;
+      for (int digit = 0; digit < RADIX; digit++) {
+        int c = count[digit];
+        count[digit] = offset;
+        offset += c;
+      }
+      long[] toKeys = fromKeys == keys ? keyBuffer : keys;
+      int[] toOrdinals = fromOrdinals == ordinals ? ordinalBuffer : ordinals;
+      for (int i = 0; i < n; i++) {
+        int slot = count[(int) (fromKeys[i] >>> shift) & (RADIX - 1)]++;
+        toKeys[slot] = fromKeys[i];
+        toOrdinals[slot] = fromOrdinals[i];
+      }
+      fromKeys = toKeys;
+      fromOrdinals = toOrdinals;
+    }
+    if (fromKeys != keys) {
+      System.arraycopy(fromKeys, 0, keys, 0, n);
+      System.arraycopy(fromOrdinals, 0, ordinals, 0, n);
+    }
+  }
+
+  /**
+   * Walks a presorted order, yielding the ordinals set in a bitmap.
+   *
+   * Backwards walks still visit each run of equal values front to back, so
+   * ties come out in ordinal order in both directions.
+   */
+  private static final class PresortedWalk extends Spliterators.AbstractIntSpliterator {
+    private final int[] order;
+    private final BitSet runStarts;
+    private final BitSet rows;
+    private final boolean ascending;
+    private final QueryContext context;
+    /** Next position to visit, and the end (exclusive) of the current run. */
+    private int position;
+    private int runEnd;
+
+    private PresortedWalk(int[] order, BitSet runStarts, BitSet rows, int count,
+        boolean ascending, QueryContext context) {
+      super(count, Spliterator.ORDERED | Spliterator.SIZED | Spliterator.DISTINCT
+          | Spliterator.NONNULL | Spliterator.IMMUTABLE);
+      this.order = order;
+      this.runStarts = runStarts;
+      this.rows = rows;
+      this.ascending = ascending;
+      this.context = context;
+      this.runEnd = order.length;
+      this.position = ascending ? 0 : Math.max(0, runStarts.previousSetBit(order.length - 1));
+    }
+
+    @Override
+    public boolean tryAdvance(IntConsumer action) {
+      while (true) {
+        if (position < runEnd) {
+          context.tick();
+          int ordinal = order[position++];
+          if (rows.get(ordinal)) {
+            action.accept(ordinal);
+            return true;
+          }
+        } else if (ascending || runEnd == 0) {
+          return false;
+        } else {
+          // step back to the run before the one just walked
+          runEnd = runStarts.previousSetBit(runEnd - 1);
+          if (runEnd <= 0) {
+            runEnd = 0;
+            return false;
+          }
+          position = runStarts.previousSetBit(runEnd - 1);
+        }
+      }
+    }
+  }
 }
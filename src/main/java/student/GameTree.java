@@ -0,0 +1,307 @@
+package student;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Order-statistic treap of games, in ascending order of normalized name, then
+ * id, then name, so the order is total and does not depend on insertion.
+ *
+ * Every node records the size of its subtree, so finding the game at an
+ * index, adding and removing are O(log n) expected, and removing a range of
+ * k games is O(log n + k): the range is split off and the two sides are
+ * merged back together.
+ */
+public class GameTree {
+
+  private final SplittableRandom priorities;
+  private Node root;
+
+  /**
+   * Constructor for an empty GameTree.
+   */
+  public GameTree() {
+    this.priorities = new SplittableRandom(0x5eed);
+    this.root = null;
+  }
+
+  /**
+   * Gets the number of games in the tree.
+   *
+   * @return number of games
+   */
+  public int size() {
+    return size(root);
+  }
+
+  /**
+   * Checks if a game is in the tree.
+   *
+   * @param game the game to look for
+   * @return true if an equal game is in the tree
+   */
+  public boolean contains(BoardGame game) {
+    Key key = new Key(game);
+    Node node = root;
+    while (node != null) {
+      int compare = key.compareTo(node.key);
+      if (compare == 0) {
+        return true;
+      }
+      node = compare < 0 ? node.left : node.right;
+    }
+    return false;
+  }
+
+  /**
+   * Adds a game.
+   *
+   * @param game the game to add
+   * @return true if it was added, false if an equal game was already in the tree
+   */
+  public boolean add(BoardGame game) {
+    if (contains(game)) {
+      return false;
+    }
+    Node node = new Node(new Key(game), game, priorities.nextInt());
+    Node[] parts = splitByKey(root, node.key);
+    root = merge(merge(parts[0], node), parts[1]);
+    return true;
+  }
+
+  /**
+   * Removes a game.
+   *
+   * @param game the game to remove
+   * @return true if it was in the tree
+   */
+  public boolean remove(BoardGame game) {
+    int index = indexOf(game);
+    if (index < 0) {
+      return false;
+    }
+    removeRange(index, index + 1);
+    return true;
+  }
+
+  /**
+   * Gets the game at an index.
+   *
+   * @param index zero-based position in order
+   * @return the game
+   * @throws IndexOutOfBoundsException if the index is not in the tree
+   */
+  public BoardGame get(int index) {
+    if (index < 0 || index >= size()) {
+      throw new IndexOutOfBoundsException("Index " + index + " of " + size());
+    }
+    Node node = root;
+    while (true) {
+      int leftSize = size(node.left);
+      if (index < leftSize) {
+        node = node.left;
+      } else if (index == leftSize) {
+        return node.game;
+      } else {
+        index -= leftSize + 1;
+        node = node.right;
+      }
+    }
+  }
+
+  /**
+   * Gets the index of a game.
+   *
+   * @param game the game to look for
+   * @return its zero-based position in order, or -1 if it is not in the tree
+   */
+  public int indexOf(BoardGame game) {
+    Key key = new Key(game);
+    Node node = root;
+    int before = 0;
+    while (node != null) {
+      int compare = key.compareTo(node.key);
+      if (compare < 0) {
+        node = node.left;
+      } else if (compare == 0) {
+        return before + size(node.left);
+      } else {
+        before += size(node.left) + 1;
+        node = node.right;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Removes the games from one index up to another.
+   *
+   * @param from first index to remove, inclusive
+   * @param to   last index to remove, exclusive
+   * @return the removed games, in order
+   * @throws IndexOutOfBoundsException if the range is not in the tree
+   */
+  public List<BoardGame> removeRange(int from, int to) {
+    if (from < 0 || to > size() || from > to) {
+      throw new IndexOutOfBoundsException("Range " + from + "-" + to + " of " + size());
+    }
+    Node[] head = splitByIndex(root, from);
+    Node[] range = splitByIndex(head[1], to - from);
+    root = merge(head[0], range[1]);
+    List<BoardGame> removed = new ArrayList<>(to - from);
+    collect(range[0], removed);
+    return removed;
+  }
+
+  /**
+   * Removes every game.
+   */
+  public void clear() {
+    root = null;
+  }
+
+  /**
+   * Gets the games in order.
+   *
+   * @return a new list of the games
+   */
+  public List<BoardGame> toList() {
+    List<BoardGame> games = new ArrayList<>(size());
+    collect(root, games);
+    return games;
+  }
+
+  /**
+   * Appends the games of a subtree in order, without recursion.
+   *
+   * @param node  root of the subtree
+   * @param games list to append to
+   */
+  private static void collect(Node node, List<BoardGame> games) {
+    Deque<Node> path = new ArrayDeque<>();
+    while (node != null || !path.isEmpty()) {
+      while (node != null) {
+        path.push(node);
+        node = node.left;
+      }
+      node = path.pop();
+      games.add(node.game);
+      node = node.right;
+    }
+  }
+
+  /**
+   * Splits a subtree into the nodes before a key and the nodes from it on.
+   *
+   * @return the two subtrees
+   */
+  private static Node[] splitByKey(Node node, Key key) {
+    if (node == null) {
+      return new Node[2];
+    }
+    if (node.key.compareTo(key) < 0) {
+      Node[] parts = splitByKey(node.right, key);
+      node.right = parts[0];
+      parts[0] = node.update();
+      return parts;
+    }
+    Node[] parts = splitByKey(node.left, key);
+    node.left = parts[1];
+    parts[1] = node.update();
+    return parts;
+  }
+
+  /**
+   * Splits a subtree into its first count nodes and the rest.
+   *
+   * @return the two subtrees
+   */
+  private static Node[] splitByIndex(Node node, int count) {
+    if (node == null) {
+      return new Node[2];
+    }
+    int leftSize = size(node.left);
+    if (leftSize < count) {
+      Node[] parts = splitByIndex(node.right, count - leftSize - 1);
+      node.right = parts[0];
+      parts[0] = node.update();
+      return parts;
+    }
+    Node[] parts = splitByIndex(node.left, count);
+    node.left = parts[1];
+    parts[1] = node.update();
+    return parts;
+  }
+
+  /**
+   * Merges two subtrees where every node of the first comes before the second.
+   *
+   * @return the merged subtree
+   */
+  private static Node merge(Node first, Node second) {
+    if (first == null) {
+      return second;
+    }
+    if (second == null) {
+      return first;
+    }
+    if (first.priority > second.priority) {
+      first.right = merge(first.right, second);
+      return first.update();
+    }
+    second.left = merge(first, second.left);
+    return second.update();
+  }
+
+  private static int size(Node node) {
+    return node == null ? 0 : node.size;
+  }
+
+  /** Sort key of a game: normalized name, then id, then name. */
+  private static final class Key implements Comparable<Key> {
+    private final String normalized;
+    private final int id;
+    private final String name;
+
+    private Key(BoardGame game) {
+      this.normalized = NameIndex.normalize(game.getName());
+      this.id = game.getId();
+      this.name = game.getName();
+    }
+
+    @Override
+    public int compareTo(Key other) {
+      int compare = normalized.compareTo(other.normalized);
+      if (compare == 0) {
+        compare = Integer.compare(id, other.id);
+      }
+      return compare != 0 ? compare : name.compareTo(other.name);
+    }
+  }
+
+  /** A game, its key and heap priority, and the size of its subtree. */
+  private static final class Node {
+    private final Key key;
+    private final BoardGame game;
+    private final int priority;
+    private int size;
+    private Node left;
+    private Node right;
+
+    private Node(Key key, BoardGame game, int priority) {
+      this.key = key;
+      this.game = game;
+      this.priority = priority;
+      this.size = 1;
+    }
+
+    /** Recomputes the subtree size after a child changed. */
+    private Node update() {
+      size = 1 + GameTree.size(left) + GameTree.size(right);
+      return this;
+    }
+  }
+}
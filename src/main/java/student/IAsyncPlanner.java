@@ -0,0 +1,54 @@
+package student;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Asynchronous variant of IPlanner, for servers that run many sessions.
+ *
+ * The methods behave as the IPlanner methods of the same name, including
+ * filters building on each other until reset, but return at once with a
+ * future. Calls on one planner still take effect in the order they were made.
+ * Results are lists rather than streams, as they are produced on another
+ * thread.
+ */
+public interface IAsyncPlanner {
+
+  /**
+   * Filters the board games, sorted by name ascending.
+   *
+   * @param filter The filter to apply to the board games.
+   * @return completes with the games that match the filter
+   * @see IPlanner#filter(String)
+   */
+  CompletableFuture<List<BoardGame>> filter(String filter);
+
+  /**
+   * Filters the board games, sorted ascending on a column.
+   *
+   * @param filter The filter to apply to the board games.
+   * @param sortOn The column to sort the results on.
+   * @return completes with the games that match the filter
+   * @see IPlanner#filter(String, GameData)
+   */
+  CompletableFuture<List<BoardGame>> filter(String filter, GameData sortOn);
+
+  /**
+   * Filters the board games, sorted on a column in either direction.
+   *
+   * @param filter    The filter to apply to the board games.
+   * @param sortOn    The column to sort the results on.
+   * @param ascending Whether to sort the results in ascending order or descending order.
+   * @return completes with the games that match the filter
+   * @see IPlanner#filter(String, GameData, boolean)
+   */
+  CompletableFuture<List<BoardGame>> filter(String filter, GameData sortOn, boolean ascending);
+
+  /**
+   * Resets the filtered games to the original set.
+   *
+   * @return completes once the reset has taken effect
+   * @see IPlanner#reset()
+   */
+  CompletableFuture<Void> reset();
+}
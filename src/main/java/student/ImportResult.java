@@ -0,0 +1,76 @@
+package student;
+
+import java.util.List;
+
+/**
+ * Outcome of loading a saved game list, as returned by GameList.loadGame.
+ *
+ * Entries that match no game in the catalog do not stop the load; they are
+ * collected here instead so the caller can report them all at once.
+ */
+public final class ImportResult {
+
+  private final int added;
+  private final int resolved;
+  private final List<String> unresolved;
+
+  /**
+   * Constructor for the ImportResult.
+   *
+   * @param added      games that were not yet in the list
+   * @param resolved   entries that matched a game
+   * @param unresolved entries that matched no game, in file order
+   */
+  ImportResult(int added, int resolved, List<String> unresolved) {
+    this.added = added;
+    this.resolved = resolved;
+    this.unresolved = List.copyOf(unresolved);
+  }
+
+  /**
+   * Gets the number of games added to the list.
+   *
+   * @return games added; games already listed are not counted
+   */
+  public int getAdded() {
+    return added;
+  }
+
+  /**
+   * Gets the number of entries that matched a game.
+   *
+   * @return matched entries, including games that were already listed
+   */
+  public int getResolved() {
+    return resolved;
+  }
+
+  /**
+   * Gets the entries that matched no game.
+   *
+   * @return the entries as they appear in the file, in file order
+   */
+  public List<String> getUnresolved() {
+    return unresolved;
+  }
+
+  /**
+   * Checks if every entry matched a game.
+   *
+   * @return true if there are no unresolved entries
+   */
+  public boolean isComplete() {
+    return unresolved.isEmpty();
+  }
+
+  /**
+   * Get a toString that shows the counts.
+   *
+   * @return string representation of the result
+   */
+  @Override
+  public String toString() {
+    return "ImportResult{" + "added=" + added + ", resolved=" + resolved
+        + ", unresolved=" + unresolved.size() + '}';
+  }
+}
@@ -0,0 +1,141 @@
+package student;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Static centered interval tree over one [low, high] range per catalog game,
+ * such as [minPlayers, maxPlayers].
+ *
+ * A stabbing query ("which ranges contain x") visits one root to leaf path
+ * and, at each node, only the ranges that actually contain x, so it costs
+ * O(log n + k) for k matches instead of a scan of every game. Games whose
+ * range is empty (low greater than high) never match.
+ */
+public class IntervalIndex {
+
+  private final int size;
+  private final Node root;
+
+  /**
+   * Constructor for the IntervalIndex.
+   *
+   * @param lows  low end of each game's range, indexed by ordinal
+   * @param highs high end of each game's range, indexed by ordinal
+   */
+  public IntervalIndex(double[] lows, double[] highs) {
+    this.size = lows.length;
+    List<Interval> intervals = new ArrayList<>(lows.length);
+    for (int i = 0; i < lows.length; i++) {
+      if (lows[i] <= highs[i]) {
+        intervals.add(new Interval(i, (int) lows[i], (int) highs[i]));
+      }
+    }
+    this.root = build(intervals);
+  }
+
+  /**
+   * Finds every game whose range contains a value.
+   *
+   * @param value the value to stab with
+   * @return bitmap of the ordinals whose range contains value
+   */
+  public BitSet stab(int value) {
+    BitSet matches = new BitSet(size);
+    Node node = root;
+    while (node != null) {
+      if (value < node.center) {
+        // every range here ends at or after center, so only the low end matters
+        for (int i = 0; i < node.byLow.length && node.lows[i] <= value; i++) {
+          matches.set(node.byLow[i]);
+        }
+        node = node.left;
+      } else if (value > node.center) {
+        for (int i = 0; i < node.byHigh.length && node.highs[i] >= value; i++) {
+          matches.set(node.byHigh[i]);
+        }
+        node = node.right;
+      } else {
+        for (int ordinal : node.byLow) {
+          matches.set(ordinal);
+        }
+        node = null;
+      }
+    }
+    return matches;
+  }
+
+  /**
+   * Builds a subtree, splitting on the median endpoint.
+   *
+   * @param intervals ranges to place in the subtree
+   * @return root of the subtree, or null if there are no ranges
+   */
+  private static Node build(List<Interval> intervals) {
+    if (intervals.isEmpty()) {
+      return null;
+    }
+    int[] endpoints = new int[intervals.size() * 2];
+    for (int i = 0; i < intervals.size(); i++) {
+      endpoints[2 * i] = intervals.get(i).low;
+      endpoints[2 * i + 1] = intervals.get(i).high;
+    }
+    Arrays.sort(endpoints);
+    int center = endpoints[intervals.size()];
+
+    List<Interval> left = new ArrayList<>();
+    List<Interval> right = new ArrayList<>();
+    List<Interval> here = new ArrayList<>();
+    for (Interval interval : intervals) {
+      if (interval.high < center) {
+        left.add(interval);
+      } else if (interval.low > center) {
+        right.add(interval);
+      } else {
+        here.add(interval);
+      }
+    }
+    return new Node(center, here, build(left), build(right));
+  }
+
+  /** One game's range. */
+  private static final class Interval {
+    private final int ordinal;
+    private final int low;
+    private final int high;
+
+    private Interval(int ordinal, int low, int high) {
+      this.ordinal = ordinal;
+      this.low = low;
+      this.high = high;
+    }
+  }
+
+  /** A tree node, holding the ranges that contain its center. */
+  private static final class Node {
+    private final int center;
+    /** Ordinals sorted by ascending low end, with the matching low ends. */
+    private final int[] byLow;
+    private final int[] lows;
+    /** Ordinals sorted by descending high end, with the matching high ends. */
+    private final int[] byHigh;
+    private final int[] highs;
+    private final Node left;
+    private final Node right;
+
+    private Node(int center, List<Interval> here, Node left, Node right) {
+      this.center = center;
+      this.left = left;
+      this.right = right;
+      here.sort(Comparator.comparingInt(interval -> interval.low));
+      this.byLow = here.stream().mapToInt(interval -> interval.ordinal).toArray();
+      this.lows = here.stream().mapToInt(interval -> interval.low).toArray();
+      here.sort(Comparator.comparingInt((Interval interval) -> interval.high).reversed());
+      this.byHigh = here.stream().mapToInt(interval -> interval.ordinal).toArray();
+      this.highs = here.stream().mapToInt(interval -> interval.high).toArray();
+    }
+  }
+}
@@ -0,0 +1,500 @@
+package student;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Durable storage for one GameList: a snapshot plus an append-only journal.
+ *
+ * Every add, remove and clear is appended to the journal as a small binary
+ * record: its length, the operation and the game's fields, and a CRC32.
+ * Records are buffered and written with one fsync per commit, so a list
+ * command that adds fifty games costs one sync, not fifty. Commits from
+ * several threads are grouped: a commit returns as soon as another thread's
+ * sync has covered its records.
+ *
+ * Once the journal holds many more records than the list has games, it is
+ * compacted: the whole list is written to a new snapshot, atomically, and the
+ * journal is started again. Snapshot and journal carry a generation number,
+ * so a crash between the two steps leaves a journal the snapshot already
+ * covers, which is then ignored. A journal newer than the snapshot means the
+ * snapshot was lost or replaced by an older copy, and opening fails rather
+ * than drop the journal's records.
+ *
+ * On open the snapshot is read and the journal replayed on top of it. A
+ * record cut short by a crash, or failing its checksum, ends the replay and is
+ * cut off, so only commits that finished are recovered.
+ *
+ * If a commit fails, the journal is cut back to the end of the last good
+ * record and the batch kept for the next commit, so a later commit never
+ * lands behind a half-written record. If even that fails, or a compaction
+ * fails after replacing the snapshot, the journal refuses every later commit
+ * and must be opened again.
+ */
+public final class ListJournal implements AutoCloseable {
+
+  private static final String SNAPSHOT = "list.snapshot";
+  private static final String JOURNAL = "list.journal";
+  private static final int SNAPSHOT_MAGIC = 0x474c5331; // "GLS1"
+  private static final int JOURNAL_MAGIC = 0x474c4a31; // "GLJ1"
+  /** Journal header: magic and generation. */
+  private static final int HEADER_BYTES = Integer.BYTES + Long.BYTES;
+  /** Records the journal may always hold before it is compacted. */
+  private static final int MIN_COMPACT_RECORDS = 4096;
+
+  private static final byte ADD = 1;
+  private static final byte REMOVE = 2;
+  private static final byte CLEAR = 3;
+
+  private final Path snapshotFile;
+  private final FileChannel journal;
+  /** Games in the list when the journal was opened, in the order last written. */
+  private final List<BoardGame> recovered;
+  private long generation;
+  /** Records in the journal file, written or buffered. */
+  private long records;
+  /** Length of the journal file up to the end of the last durable record. */
+  private long end;
+  /** Why the journal can no longer be written, or null while it can. */
+  private IOException failure;
+
+  /** Encoded records not yet written, and sequence numbers for group commit. */
+  private ByteArrayOutputStream pending;
+  private long appended;
+  private long durable;
+  private final Object syncLock;
+
+  private ListJournal(Path directory) throws IOException {
+    this.snapshotFile = directory.resolve(SNAPSHOT);
+    this.syncLock = new Object();
+    this.pending = new ByteArrayOutputStream();
+
+    Map<String, BoardGame> games = new LinkedHashMap<>();
+    this.generation = readSnapshot(games);
+    Path journalFile = directory.resolve(JOURNAL);
+    boolean created = !Files.exists(journalFile);
+    this.journal = FileChannel.open(journalFile, StandardOpenOption.CREATE,
+        StandardOpenOption.READ, StandardOpenOption.WRITE);
+    try {
+      replay(games);
+      if (created) {
+        GameExporter.syncDirectory(directory);
+      }
+    } catch (IOException e) {
+      journal.close();
+      throw e;
+    }
+    this.recovered = new ArrayList<>(games.values());
+  }
+
+  /**
+   * Opens the journal in a directory, creating the directory and an empty
+   * journal if needed, and recovers the list it holds.
+   *
+   * @param directory where the snapshot and journal files are kept
+   * @return the open journal
+   * @throws IOException if the files cannot be read, the snapshot is corrupt,
+   *                     or the journal is newer than the snapshot
+   */
+  public static ListJournal open(Path directory) throws IOException {
+    Files.createDirectories(directory);
+    return new ListJournal(directory);
+  }
+
+  /**
+   * Gets the games the files held when the journal was opened.
+   *
+   * @return the recovered games
+   */
+  List<BoardGame> recovered() {
+    return recovered;
+  }
+
+  /**
+   * Buffers a record of a game added to the list.
+   *
+   * @param game the game added
+   */
+  void add(BoardGame game) {
+    append(ADD, game);
+  }
+
+  /**
+   * Buffers a record of a game removed from the list.
+   *
+   * @param game the game removed
+   */
+  void remove(BoardGame game) {
+    append(REMOVE, game);
+  }
+
+  /**
+   * Buffers a record of the list being cleared.
+   */
+  void clear() {
+    append(CLEAR, null);
+  }
+
+  /**
+   * Writes and syncs every record buffered so far, or waits for a sync by
+   * another thread that covers them.
+   *
+   * @throws IOException if the records cannot be written; they stay
+   *                     buffered for the next commit
+   */
+  public void commit() throws IOException {
+    long target;
+    synchronized (this) {
+      target = appended;
+    }
+    synchronized (syncLock) {
+      checkWritable();
+      if (durable >= target) {
+        return;
+      }
+      byte[] batch;
+      long batchEnd;
+      synchronized (this) {
+        batch = pending.toByteArray();
+        batchEnd = appended;
+        pending = new ByteArrayOutputStream();
+      }
+      try {
+        ByteBuffer buffer = ByteBuffer.wrap(batch);
+        while (buffer.hasRemaining()) {
+          journal.write(buffer);
+        }
+        journal.force(false);
+      } catch (IOException e) {
+        restore(batch, e);
+        throw e;
+      }
+      end += batch.length;
+      durable = batchEnd;
+    }
+  }
+
+  /**
+   * Undoes a failed write: cuts the file back to the last durable record and
+   * puts the batch back in front of anything buffered since. If the file
+   * cannot be cut back, the journal is marked failed.
+   *
+   * @param batch the records that were being written
+   * @param cause why the write failed
+   */
+  private void restore(byte[] batch, IOException cause) {
+    try {
+      journal.truncate(end);
+      journal.position(end);
+    } catch (IOException e) {
+      cause.addSuppressed(e);
+      failure = cause;
+    }
+    synchronized (this) {
+      ByteArrayOutputStream restored = new ByteArrayOutputStream(batch.length + pending.size());
+      restored.write(batch, 0, batch.length);
+      byte[] later = pending.toByteArray();
+      restored.write(later, 0, later.length);
+      pending = restored;
+    }
+  }
+
+  /**
+   * Checks that an earlier failure has not left the journal unusable.
+   *
+   * @throws IOException if it has
+   */
+  private void checkWritable() throws IOException {
+    if (failure != null) {
+      throw new IOException("List journal failed earlier; open it again", failure);
+    }
+  }
+
+  /**
+   * Checks if the journal has grown enough to be compacted.
+   *
+   * @param listSize the number of games in the list
+   * @return true if the journal holds more than twice as many records as
+   *         the list has games, and at least MIN_COMPACT_RECORDS
+   */
+  synchronized boolean needsCompaction(int listSize) {
+    return records >= Math.max(MIN_COMPACT_RECORDS, 2L * listSize);
+  }
+
+  /**
+   * Writes the list as a new snapshot and starts an empty journal. Records
+   * still buffered are committed first.
+   *
+   * @param games every game in the list
+   * @throws IOException if the files cannot be written
+   */
+  public void compact(Collection<BoardGame> games) throws IOException {
+    commit();
+    synchronized (syncLock) {
+      checkWritable();
+      long next = generation + 1;
+      writeSnapshot(games, next);
+      try {
+        // the rename must be durable before the journal it covers is emptied
+        GameExporter.syncDirectory(snapshotFile.toAbsolutePath().getParent());
+        journal.truncate(0);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putInt(JOURNAL_MAGIC)
+            .putLong(next);
+        header.flip();
+        journal.write(header, 0);
+        journal.position(HEADER_BYTES);
+        journal.force(false);
+      } catch (IOException e) {
+        // the snapshot is newer than the journal, so later records would be ignored
+        failure = e;
+        throw e;
+      }
+      end = HEADER_BYTES;
+      synchronized (this) {
+        generation = next;
+        records = 0;
+      }
+    }
+  }
+
+  /**
+   * Commits buffered records and closes the journal file.
+   *
+   * @throws IOException if the records cannot be written
+   */
+  @Override
+  public void close() throws IOException {
+    try {
+      commit();
+    } finally {
+      journal.close();
+    }
+  }
+
+  /**
+   * Encodes one record into the pending buffer.
+   */
+  private synchronized void append(byte op, BoardGame game) {
+    ByteArrayOutputStream payload = new ByteArrayOutputStream(64);
+    try (DataOutputStream out = new DataOutputStream(payload)) {
+      out.writeByte(op);
+      if (game != null) {
+        writeGame(out, game);
+      }
+    } catch (IOException e) {
+      throw new IllegalStateException(e); // not thrown by in memory streams
+    }
+    byte[] bytes = payload.toByteArray();
+    CRC32 crc = new CRC32();
+    crc.update(bytes);
+    ByteBuffer frame = ByteBuffer.allocate(bytes.length + 2 * Integer.BYTES);
+    frame.putInt(bytes.length).put(bytes).putInt((int) crc.getValue());
+    pending.write(frame.array(), 0, frame.capacity());
+    appended++;
+    records++;
+  }
+
+  /**
+   * Reads the snapshot, if there is one.
+   *
+   * @param games filled with the snapshot's games
+   * @return the snapshot's generation, or 0 if there is none
+   * @throws IOException if the snapshot cannot be read or is corrupt
+   */
+  private long readSnapshot(Map<String, BoardGame> games) throws IOException {
+    if (!Files.exists(snapshotFile)) {
+      return 0;
+    }
+    byte[] bytes = Files.readAllBytes(snapshotFile);
+    if (bytes.length < Integer.BYTES) {
+      throw new IOException("Corrupt list snapshot: " + snapshotFile);
+    }
+    int body = bytes.length - Integer.BYTES;
+    CRC32 crc = new CRC32();
+    crc.update(bytes, 0, body);
+    ByteBuffer trailer = ByteBuffer.wrap(bytes, body, Integer.BYTES);
+    try (DataInputStream in = new DataInputStream(
+        new ByteArrayInputStream(bytes, 0, body))) {
+      if (trailer.getInt() != (int) crc.getValue() || in.readInt() != SNAPSHOT_MAGIC) {
+        throw new IOException("Corrupt list snapshot: " + snapshotFile);
+      }
+      long snapshotGeneration = in.readLong();
+      int count = in.readInt();
+      for (int i = 0; i < count; i++) {
+        BoardGame game = readGame(in);
+        games.put(key(game), game);
+      }
+      return snapshotGeneration;
+    } catch (EOFException e) {
+      throw new IOException("Corrupt list snapshot: " + snapshotFile, e);
+    }
+  }
+
+  /**
+   * Writes a snapshot to a temporary file and moves it over the old one.
+   */
+  private void writeSnapshot(Collection<BoardGame> games, long snapshotGeneration)
+      throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(games.size() * 64 + 32);
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      out.writeInt(SNAPSHOT_MAGIC);
+      out.writeLong(snapshotGeneration);
+      out.writeInt(games.size());
+      for (BoardGame game : games) {
+        writeGame(out, game);
+      }
+    }
+    CRC32 crc = new CRC32();
+    crc.update(bytes.toByteArray());
+    ByteBuffer trailer = ByteBuffer.allocate(Integer.BYTES).putInt((int) crc.getValue());
+    bytes.write(trailer.array(), 0, Integer.BYTES);
+
+    Path temp = Files.createTempFile(snapshotFile.toAbsolutePath().getParent(), SNAPSHOT + ".",
+        ".tmp");
+    try {
+      try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+        while (buffer.hasRemaining()) {
+          out.write(buffer);
+        }
+        out.force(true);
+      }
+      try {
+        Files.move(temp, snapshotFile, StandardCopyOption.ATOMIC_MOVE,
+            StandardCopyOption.REPLACE_EXISTING);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(temp, snapshotFile, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+  }
+
+  /**
+   * Replays the journal on top of the snapshot's games, cutting off a torn
+   * or corrupt tail. A journal from before the snapshot is started again.
+   *
+   * @param games the snapshot's games, updated in place
+   * @throws IOException if the journal cannot be read, is not a journal, or
+   *                     is newer than the snapshot
+   */
+  private void replay(Map<String, BoardGame> games) throws IOException {
+    long size = journal.size();
+    if (size >= HEADER_BYTES) {
+      DataInputStream in = new DataInputStream(
+          new BufferedInputStream(Channels.newInputStream(journal.position(0))));
+      if (in.readInt() != JOURNAL_MAGIC) {
+        throw new IOException("Not a list journal");
+      }
+      long journalGeneration = in.readLong();
+      if (journalGeneration > generation) {
+        throw new IOException("List journal generation " + journalGeneration
+            + " is newer than the snapshot's (" + generation
+            + "): the snapshot is missing or out of date");
+      }
+      if (journalGeneration == generation) {
+        long good = HEADER_BYTES;
+        while (true) {
+          int length;
+          byte[] payload;
+          try {
+            length = in.readInt();
+            if (length <= 0 || good + length + 2L * Integer.BYTES > size) {
+              break;
+            }
+            payload = new byte[length];
+            in.readFully(payload);
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            if (in.readInt() != (int) crc.getValue()) {
+              break;
+            }
+          } catch (EOFException e) {
+            break;
+          }
+          apply(payload, games);
+          good += length + 2L * Integer.BYTES;
+          records++;
+        }
+        journal.truncate(good);
+        journal.position(good);
+        end = good;
+        return;
+      }
+    }
+    // missing, torn header or already covered by the snapshot: start it again
+    journal.truncate(0);
+    ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putInt(JOURNAL_MAGIC)
+        .putLong(generation);
+    header.flip();
+    journal.write(header, 0);
+    journal.position(HEADER_BYTES);
+    journal.force(false);
+    end = HEADER_BYTES;
+  }
+
+  /**
+   * Applies one journal record to the games.
+   */
+  private static void apply(byte[] payload, Map<String, BoardGame> games) throws IOException {
+    try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+      byte op = in.readByte();
+      if (op == CLEAR) {
+        games.clear();
+        return;
+      }
+      BoardGame game = readGame(in);
+      if (op == ADD) {
+        games.putIfAbsent(key(game), game);
+      } else if (op == REMOVE) {
+        games.remove(key(game));
+      } else {
+        throw new IOException("Unknown list journal operation: " + op);
+      }
+    }
+  }
+
+  /** Identifies a game the way BoardGame.equals does, by name and id. */
+  private static String key(BoardGame game) {
+    return game.getId() + ":" + game.getName();
+  }
+
+  private static void writeGame(DataOutputStream out, BoardGame game) throws IOException {
+    out.writeInt(game.getId());
+    out.writeUTF(game.getName());
+    out.writeInt(game.getMinPlayers());
+    out.writeInt(game.getMaxPlayers());
+    out.writeInt(game.getMinPlayTime());
+    out.writeInt(game.getMaxPlayTime());
+    out.writeDouble(game.getDifficulty());
+    out.writeInt(game.getRank());
+    out.writeDouble(game.getRating());
+    out.writeInt(game.getYearPublished());
+  }
+
+  private static BoardGame readGame(DataInputStream in) throws IOException {
+    int id = in.readInt();
+    String name = in.readUTF();
+    return new BoardGame(name, id, in.readInt(), in.readInt(), in.readInt(), in.readInt(),
+        in.readDouble(), in.readInt(), in.readDouble(), in.readInt());
+  }
+}
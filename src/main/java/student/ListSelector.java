@@ -0,0 +1,154 @@
+package student;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One piece of a list selection such as "1-5,8,12-20,catan": "all", a
+ * 1-based index, a range of indexes, or a game name.
+ *
+ * A selection is split on commas and each piece classified in a single pass
+ * over its characters, without regular expressions.
+ */
+final class ListSelector {
+
+  /** What a piece selects. */
+  enum Kind {
+    ALL, RANGE, NAME
+  }
+
+  private final Kind kind;
+  private final String text;
+  private final int start;
+  private final int end;
+  private final boolean single;
+
+  private ListSelector(Kind kind, String text, int start, int end, boolean single) {
+    this.kind = kind;
+    this.text = text;
+    this.start = start;
+    this.end = end;
+    this.single = single;
+  }
+
+  /**
+   * Parses a selection into its pieces.
+   *
+   * @param selection trimmed, lower case selection
+   * @return the pieces, in the order given
+   * @throws IllegalArgumentException if a piece is empty
+   */
+  static List<ListSelector> parse(String selection) {
+    List<ListSelector> pieces = new ArrayList<>();
+    int from = 0;
+    while (from <= selection.length()) {
+      int comma = selection.indexOf(',', from);
+      int to = comma < 0 ? selection.length() : comma;
+      pieces.add(piece(selection, from, to));
+      from = to + 1;
+    }
+    return pieces;
+  }
+
+  /**
+   * Classifies one piece: digits, optionally followed by a dash and more
+   * digits, is an index or range; "all" selects everything; anything else is a
+   * name. Numbers too large for an int are kept as Integer.MAX_VALUE so they
+   * fail range validation rather than parsing.
+   */
+  private static ListSelector piece(String selection, int from, int to) {
+    while (from < to && Character.isWhitespace(selection.charAt(from))) {
+      from++;
+    }
+    while (to > from && Character.isWhitespace(selection.charAt(to - 1))) {
+      to--;
+    }
+    String text = selection.substring(from, to);
+    if (text.isEmpty()) {
+      throw new IllegalArgumentException("Empty selection in: " + selection);
+    }
+    if (text.equals(IGameList.ADD_ALL)) {
+      return new ListSelector(Kind.ALL, text, 0, 0, false);
+    }
+
+    long[] numbers = new long[2];
+    int count = 0;
+    boolean digits = false;
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      if (c >= '0' && c <= '9') {
+        numbers[count] = Math.min(Integer.MAX_VALUE, numbers[count] * 10 + (c - '0'));
+        digits = true;
+      } else if (c == '-' && count == 0 && digits) {
+        count = 1;
+        digits = false;
+      } else {
+        return new ListSelector(Kind.NAME, text, 0, 0, false);
+      }
+    }
+    if (!digits) {
+      return new ListSelector(Kind.NAME, text, 0, 0, false);
+    }
+    int start = (int) numbers[0];
+    int end = count == 0 ? start : (int) numbers[1];
+    return new ListSelector(Kind.RANGE, text, start, end, count == 0);
+  }
+
+  /**
+   * Gets what the piece selects.
+   *
+   * @return the kind of piece
+   */
+  Kind getKind() {
+    return kind;
+  }
+
+  /**
+   * Gets the piece as given, for error messages and name lookups.
+   *
+   * @return trimmed text of the piece
+   */
+  String getText() {
+    return text;
+  }
+
+  /**
+   * Gets the first index of a range.
+   *
+   * @return 1-based index
+   */
+  int getStart() {
+    return start;
+  }
+
+  /**
+   * Gets the last index of a range, inclusive.
+   *
+   * @return 1-based index
+   */
+  int getEnd() {
+    return end;
+  }
+
+  /**
+   * Checks if the range was given as a single number.
+   *
+   * @return true for "8", false for "8-8"
+   */
+  boolean isSingle() {
+    return single;
+  }
+
+  /**
+   * Validates a range against the number of games it selects from.
+   *
+   * @param size number of games
+   * @throws IllegalArgumentException if the range is not within 1 to size
+   */
+  void checkRange(int size) {
+    if (start < 1 || end < start || end > size) {
+      throw new IllegalArgumentException(
+          (single ? "Invalid selection: " : "Invalid range: ") + text);
+    }
+  }
+}
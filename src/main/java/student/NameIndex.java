@@ -0,0 +1,287 @@
+package student;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * BK-tree over normalized game names, for fuzzy (typo tolerant) lookups.
+ *
+ * Each node holds one normalized name and the games that share it. Children
+ * are keyed by their Levenshtein distance to the parent, so a search within
+ * distance k only has to descend into children keyed d-k through d+k, which
+ * skips most of the tree for small k.
+ *
+ * Removing a game only detaches it from its node; the node stays in place to
+ * keep routing the search, and is reused if the name is added back.
+ *
+ * Every node is also kept in a hash map by its normalized name, so exact
+ * lookups, and adding or removing a game whose name is already indexed, are
+ * O(1) rather than a walk down the tree. Games sharing a normalized name are
+ * kept in id order, then name order, so the first match is always the same.
+ */
+public class NameIndex {
+
+  /** Order of games sharing a normalized name: id, then name. */
+  static final Comparator<BoardGame> BY_ID = Comparator.comparingInt(BoardGame::getId)
+      .thenComparing(BoardGame::getName);
+
+  /** Largest edit distance used for suggestions. */
+  private static final int MAX_SUGGEST_DISTANCE = 3;
+
+  private Node root;
+  private int size;
+  /** Every node, by its normalized name. */
+  private final Map<String, Node> nodes;
+
+  /**
+   * Constructor for an empty NameIndex.
+   */
+  public NameIndex() {
+    this.root = null;
+    this.size = 0;
+    this.nodes = new HashMap<>();
+  }
+
+  /**
+   * Constructor for a NameIndex over the given games.
+   *
+   * @param games games to index
+   */
+  public NameIndex(Iterable<BoardGame> games) {
+    this();
+    for (BoardGame game : games) {
+      add(game);
+    }
+  }
+
+  /**
+   * Normalizes a name for lookups: trimmed, lower case, with runs of
+   * whitespace collapsed to a single space.
+   *
+   * @param name the name to normalize
+   * @return normalized name
+   */
+  public static String normalize(String name) {
+    StringBuilder sb = new StringBuilder(name.length());
+    boolean space = false;
+    for (int i = 0; i < name.length(); i++) {
+      char c = name.charAt(i);
+      if (Character.isWhitespace(c)) {
+        space = sb.length() > 0;
+      } else {
+        if (space) {
+          sb.append(' ');
+          space = false;
+        }
+        sb.append(Character.toLowerCase(c));
+      }
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Adds a game to the index.
+   *
+   * @param game the game to add
+   */
+  public void add(BoardGame game) {
+    String key = normalize(game.getName());
+    Node node = nodes.get(key);
+    if (node == null) {
+      node = insertNode(key);
+    }
+    int position = Collections.binarySearch(node.games, game, BY_ID);
+    if (position < 0) {
+      node.games.add(-position - 1, game);
+      size++;
+    }
+  }
+
+  /**
+   * Walks the tree to where a new key belongs and adds a node for it.
+   *
+   * @param key normalized name that has no node yet
+   * @return the new node
+   */
+  private Node insertNode(String key) {
+    Node created = new Node(key);
+    nodes.put(key, created);
+    if (root == null) {
+      root = created;
+      return created;
+    }
+    Node node = root;
+    while (true) {
+      int distance = distance(key, node.key);
+      Node child = node.children.get(distance);
+      if (child == null) {
+        node.children.put(distance, created);
+        return created;
+      }
+      node = child;
+    }
+  }
+
+  /**
+   * Removes a game from the index.
+   *
+   * @param game the game to remove
+   * @return true if the game was indexed
+   */
+  public boolean remove(BoardGame game) {
+    Node node = findNode(normalize(game.getName()));
+    if (node != null && node.games.remove(game)) {
+      size--;
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Removes every game from the index.
+   */
+  public void clear() {
+    root = null;
+    size = 0;
+    nodes.clear();
+  }
+
+  /**
+   * Gets the number of games in the index.
+   *
+   * @return number of games
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Finds the games whose normalized name matches exactly, in O(1).
+   *
+   * @param name the name to look up
+   * @return matching games, lowest id first, empty if none
+   */
+  public List<BoardGame> find(String name) {
+    Node node = findNode(normalize(name));
+    return node == null ? List.of() : List.copyOf(node.games);
+  }
+
+  /**
+   * Finds the games within an edit distance of a name, closest first.
+   *
+   * @param name        the name to look up
+   * @param maxDistance largest Levenshtein distance to accept
+   * @return matching games ordered by distance, then name
+   */
+  public List<BoardGame> nearest(String name, int maxDistance) {
+    if (root == null) {
+      return List.of();
+    }
+    String key = normalize(name);
+    List<Match> matches = new ArrayList<>();
+    Deque<Node> pending = new ArrayDeque<>();
+    pending.push(root);
+    while (!pending.isEmpty()) {
+      Node node = pending.pop();
+      int distance = distance(key, node.key);
+      if (distance <= maxDistance) {
+        for (BoardGame game : node.games) {
+          matches.add(new Match(game, distance));
+        }
+      }
+      for (Map.Entry<Integer, Node> child : node.children.entrySet()) {
+        if (Math.abs(child.getKey() - distance) <= maxDistance) {
+          pending.push(child.getValue());
+        }
+      }
+    }
+    matches.sort(Comparator.comparingInt((Match m) -> m.distance)
+        .thenComparing(m -> m.game.getName().toLowerCase()));
+    List<BoardGame> games = new ArrayList<>(matches.size());
+    for (Match match : matches) {
+      games.add(match.game);
+    }
+    return games;
+  }
+
+  /**
+   * Suggests corrections for a name that was not found, allowing roughly one
+   * typo per four characters (at most three).
+   *
+   * @param name the name that was not found
+   * @return close matches ordered by distance, then name
+   */
+  public List<BoardGame> suggest(String name) {
+    int maxDistance = Math.max(1, Math.min(MAX_SUGGEST_DISTANCE, name.length() / 4));
+    return nearest(name, maxDistance);
+  }
+
+  /**
+   * Gets the node holding exactly this key.
+   *
+   * @param key normalized name
+   * @return the node, or null if the key was never added
+   */
+  private Node findNode(String key) {
+    return nodes.get(key);
+  }
+
+  /**
+   * Levenshtein distance between two strings, using two rolling rows.
+   *
+   * @param a first string
+   * @param b second string
+   * @return number of single character edits to turn a into b
+   */
+  static int distance(String a, String b) {
+    if (a.equals(b)) {
+      return 0;
+    }
+    int[] previous = new int[b.length() + 1];
+    int[] current = new int[b.length() + 1];
+    for (int j = 0; j <= b.length(); j++) {
+      previous[j] = j;
+    }
+    for (int i = 1; i <= a.length(); i++) {
+      current[0] = i;
+      char ca = a.charAt(i - 1);
+      for (int j = 1; j <= b.length(); j++) {
+        int cost = ca == b.charAt(j - 1) ? 0 : 1;
+        current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1),
+            previous[j - 1] + cost);
+      }
+      int[] swap = previous;
+      previous = current;
+      current = swap;
+    }
+    return previous[b.length()];
+  }
+
+  /** A node of the BK-tree. */
+  private static final class Node {
+    private final String key;
+    private final List<BoardGame> games = new ArrayList<>(1);
+    private final Map<Integer, Node> children = new HashMap<>(4);
+
+    private Node(String key) {
+      this.key = key;
+    }
+  }
+
+  /** A game found by a fuzzy search, with its distance from the query. */
+  private static final class Match {
+    private final BoardGame game;
+    private final int distance;
+
+    private Match(BoardGame game, int distance) {
+      this.game = game;
+      this.distance = distance;
+    }
+  }
+}
@@ -40,7 +40,9 @@ public enum Operations {
     EQUALS("=="), NOT_EQUALS("!="), GREATER_THAN(">"), LESS_THAN("<"), GREATER_THAN_EQUALS(
             ">="),
     /** Operations to use. */
-    LESS_THAN_EQUALS("<="), CONTAINS("~=");
+    LESS_THAN_EQUALS("<="), CONTAINS("~="),
+    /** The value falls within the game's min to max range (players or play time). */
+    FITS("@=");
 
     /** The operator. */
     private final String operator;
@@ -1,8 +1,11 @@
 package student;
 
+import java.util.BitSet;
+import java.util.List;
 import java.util.Set;
+import java.util.SortedMap;
 import java.util.Comparator;
-import java.util.HashSet;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
@@ -26,16 +29,64 @@ import java.util.stream.Stream;
  */
 public class Planner implements IPlanner {
 
-  private Set<BoardGame> games;
-  private Set<BoardGame> filteredGames;
-  private final GameFilter gameFilter;
-  private final GameSorter gameSorter;
+  /** The helpers hold no state, so every session shares them. */
+  private static final GameFilter GAME_FILTER = new GameFilter();
+  private static final GameSorter GAME_SORTER = new GameSorter();
+  private static final GameAggregator GAME_AGGREGATOR = new GameAggregator();
+  private static final SessionPacker SESSION_PACKER = new SessionPacker();
+  private static final GamePager GAME_PAGER = new GamePager();
 
+  /** Where newer catalogs are published, or null if the catalog never changes. */
+  private final CatalogRegistry registry;
+  private CatalogVersion version;
+  private GameCatalog catalog;
+  private FilterHistory history;
+  /** Sort of the most recent filter call, and the view of its result if built. */
+  private SortSpec lastSort;
+  private ResultView lastResult;
+
+  /**
+   * Constructor for a Planner with its own catalog of the games.
+   *
+   * @param games the full board game collection
+   */
   public Planner(Set<BoardGame> games) {
-    this.games = games;
-    this.filteredGames = new HashSet<>(games);
-    this.gameFilter = new GameFilter();
-    this.gameSorter = new GameSorter();
+    this(new GameCatalog(games));
+  }
+
+  /**
+   * Constructor for a Planner over an already built catalog.
+   *
+   * A Planner is one user's session: it only holds that user's filter states,
+   * so its memory grows with the filters applied rather than with the catalog.
+   * Many Planners can share one catalog, each used by one thread at a time;
+   * the catalog is immutable and is read without locking.
+   *
+   * @param catalog the full board game collection
+   */
+  public Planner(GameCatalog catalog) {
+    this.registry = null;
+    this.version = null;
+    this.catalog = catalog;
+    this.history = new FilterHistory(catalog);
+    this.lastSort = SortSpec.of(GameData.NAME, true);
+  }
+
+  /**
+   * Constructor for a Planner that follows the registry's current catalog.
+   *
+   * When a new catalog is published, the next call on this Planner replays
+   * the applied filter clauses on it, so the session keeps its filters and
+   * undo history. Streams returned before that keep reading the old catalog.
+   *
+   * @param registry publishes the current catalog
+   */
+  public Planner(CatalogRegistry registry) {
+    this.registry = registry;
+    this.version = registry.current();
+    this.catalog = version.getCatalog();
+    this.history = new FilterHistory(catalog);
+    this.lastSort = SortSpec.of(GameData.NAME, true);
   }
 
   /**
@@ -46,13 +97,17 @@ public class Planner implements IPlanner {
    * 
    * @param filter The filter to apply to the board games.
    * @return A stream of board games that match the filter.
+   * @throws FilterParseException if the filter is not valid; the filters
+   *                              applied are then unchanged
    * @see #filter(String, GameData, boolean
    */
   @Override
   public Stream<BoardGame> filter(String filter) {
-
-    filteredGames = gameFilter.applyFilter(filteredGames, filter);
-    return filteredGames.stream().sorted(Comparator.comparing(game -> game.getName().toLowerCase()));
+    refresh();
+    GAME_FILTER.applyFilter(catalog, history, filter);
+    lastSort = SortSpec.of(GameData.NAME, true);
+    return catalog.stream(currentRows())
+        .sorted(Comparator.comparing(game -> game.getName().toLowerCase()));
   }
 
   /**
@@ -61,7 +116,8 @@ public class Planner implements IPlanner {
    * @return List of filtered games
    */
   public Set<BoardGame> getFilteredGames() {
-    return filteredGames;
+    refresh();
+    return catalog.toSet(currentRows());
   }
 
   /**
@@ -72,18 +128,109 @@ public class Planner implements IPlanner {
    * @param filter The filter to apply to the board games.
    * @param sortOn The column to sort the results on.
    * @return A stream of board games that match the filter.
+   * @throws FilterParseException if the filter is not valid
    * @see #filter(String, GameData, boolean)
    */
   @Override
   public Stream<BoardGame> filter(String filter, GameData sortOn) {
-    filteredGames = gameFilter.applyFilter(filteredGames, filter);
-    return gameSorter.sort(filteredGames.stream(), sortOn, true);
+    refresh();
+    GAME_FILTER.applyFilter(catalog, history, filter);
+    lastSort = SortSpec.of(sortOn, true);
+    return GAME_SORTER.sort(catalog, currentRows(), sortOn, true);
   }
 
   @Override
   public Stream<BoardGame> filter(String filter, GameData sortOn, boolean ascending) {
-    filteredGames = gameFilter.applyFilter(filteredGames, filter);
-    return gameSorter.sort(filteredGames.stream(), sortOn, ascending);
+    refresh();
+    GAME_FILTER.applyFilter(catalog, history, filter);
+    lastSort = SortSpec.of(sortOn, ascending);
+    return GAME_SORTER.sort(catalog, currentRows(), sortOn, ascending);
+  }
+
+  /**
+   * Filters the board games by the passed in text filter, sorting on several
+   * columns. Games equal on every column are ordered by id, so the same filter
+   * and sort always give the same order.
+   *
+   * @param filter The filter to apply to the board games.
+   * @param sortOn The columns and directions to sort on, for example
+   *               SortSpec.parse("rating desc, name asc").
+   * @return A stream of board games that match the filter.
+   * @throws FilterParseException if the filter is not valid
+   */
+  public Stream<BoardGame> filter(String filter, SortSpec sortOn) {
+    refresh();
+    GAME_FILTER.applyFilter(catalog, history, filter);
+    lastSort = sortOn;
+    return GAME_SORTER.sort(catalog, currentRows(), sortOn);
+  }
+
+  /**
+   * Filters and sorts like filter(String, SortSpec), but stops once the query
+   * context's deadline passes or it is cancelled, instead of holding the
+   * thread for as long as a large scan and sort take. The result is sorted
+   * before this returns, so the deadline covers all of the work.
+   *
+   * @param filter  The filter to apply to the board games.
+   * @param sortOn  The columns and directions to sort on.
+   * @param context deadline and cancellation token, for example
+   *                QueryContext.withTimeout(Duration.ofMillis(200))
+   * @return A stream of board games that match the filter.
+   * @throws FilterParseException  if the filter is not valid
+   * @throws QueryTimeoutException if the query stops; the filters applied are
+   *                               then the same as before the call
+   */
+  public Stream<BoardGame> filter(String filter, SortSpec sortOn, QueryContext context) {
+    refresh();
+    int depth = history.depth();
+    GAME_FILTER.applyFilter(catalog, history, filter, context);
+    try {
+      List<BoardGame> games = GAME_SORTER.sortToList(catalog, currentRows(), sortOn, context);
+      lastSort = sortOn;
+      lastResult = new ResultView(catalog, history.current(), sortOn, games);
+      return games.stream();
+    } catch (QueryTimeoutException e) {
+      while (history.depth() > depth) {
+        history.pop();
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Gets the result of the most recent filter call as an indexable list, in
+   * the order that call sorted it, so games can be picked by the number they
+   * were shown with. The view is built at most once per filter state and
+   * sort; until the filter changes, later calls return the same view. After
+   * reset or undo the view is of the current games, in the last sort.
+   *
+   * @return the current filter result
+   */
+  public ResultView getLastResult() {
+    refresh();
+    FilterState state = history.current();
+    if (lastResult == null || !lastResult.isCurrent(catalog, state, lastSort)) {
+      lastResult = new ResultView(catalog, state, lastSort,
+          GAME_SORTER.sort(catalog, state.getRows(), lastSort).collect(Collectors.toList()));
+    }
+    return lastResult;
+  }
+
+  /**
+   * Gets one page of the currently filtered games. Pass the returned page's
+   * cursor to get the next page; each page costs one pass over the filtered
+   * games, however far into the result it is.
+   *
+   * @param sortOn   the sort order
+   * @param pageSize the most games per page
+   * @param cursor   ResultPage.getNextCursor() of the previous page, or null for the first page
+   * @return the page
+   * @throws IllegalArgumentException if the page size is less than 1, or the
+   *                                  cursor was not made for this sort
+   */
+  public ResultPage page(SortSpec sortOn, int pageSize, String cursor) {
+    refresh();
+    return GAME_PAGER.page(catalog, currentRows(), sortOn, pageSize, cursor);
   }
 
   /**
@@ -91,6 +238,203 @@ public class Planner implements IPlanner {
    */
   @Override
   public void reset() {
-    filteredGames = games;
+    refresh();
+    history.clear();
+  }
+
+  /**
+   * Removes the most recently applied filter clause, restoring the filter
+   * state from before it was applied without re-running earlier clauses.
+   *
+   * @return true if a clause was removed, false if no filters were applied
+   */
+  public boolean undo() {
+    refresh();
+    return history.pop();
+  }
+
+  /**
+   * Gets the number of filter clauses currently applied.
+   *
+   * @return number of clauses since the last reset
+   */
+  public int getFilterDepth() {
+    return history.depth();
+  }
+
+  /**
+   * Gets the filter clauses currently applied. Applying them again, in order,
+   * to a new Planner over the same catalog rebuilds this filter state.
+   *
+   * @return the clauses since the last reset, oldest first
+   */
+  public List<FilterClause> getFilterChain() {
+    return history.clauses();
+  }
+
+  /**
+   * Summarizes a numeric column over the currently filtered games, without
+   * streaming the games themselves.
+   *
+   * @param column numeric column to summarize
+   * @return count, sum, min, max, average and percentiles of the column
+   * @throws IllegalArgumentException if the column is not numeric
+   */
+  public ColumnStats aggregate(GameData column) {
+    refresh();
+    return GAME_AGGREGATOR.aggregate(catalog, currentRows(), column);
+  }
+
+  /**
+   * Summarizes a numeric column over the currently filtered games, grouped by a
+   * whole number column. For example groupBy(GameData.YEAR, GameData.RATING)
+   * gives the rating statistics of each publication year.
+   *
+   * @param groupOn whole number column to group by
+   * @param column  numeric column to summarize
+   * @return statistics per group, in ascending group order
+   * @throws IllegalArgumentException if either column cannot be used
+   */
+  public SortedMap<Integer, ColumnStats> groupBy(GameData groupOn, GameData column) {
+    refresh();
+    return GAME_AGGREGATOR.groupBy(catalog, currentRows(), groupOn, column);
+  }
+
+  /**
+   * Gets the facet counts (player, play time, difficulty and decade
+   * histograms) of the currently filtered games. They are kept up to date as
+   * each clause is applied, so this does not scan the games.
+   *
+   * @return facet counts of the current filter
+   */
+  public FacetCounts getFacets() {
+    refresh();
+    return history.current().getFacets();
+  }
+
+  /**
+   * Plans a play session from the currently filtered games: picks games that
+   * support the given players and fit in the session when played back to
+   * back, maximizing their summed rating. Budgets with each game's maximum
+   * play time, so the plan will not overrun.
+   *
+   * @param minutes length of the session
+   * @param players number of players
+   * @return the best plan
+   * @throws IllegalArgumentException if minutes is negative or players is less than 1
+   */
+  public SessionPlan planSession(int minutes, int players) {
+    return planSession(minutes, players, GameData.MAX_TIME);
+  }
+
+  /**
+   * Plans a play session from the currently filtered games, budgeting with
+   * either the minimum or the maximum play time of each game.
+   *
+   * @param minutes  length of the session
+   * @param players  number of players
+   * @param playTime GameData.MIN_TIME or GameData.MAX_TIME
+   * @return the best plan
+   * @throws IllegalArgumentException if any argument is out of range
+   */
+  public SessionPlan planSession(int minutes, int players, GameData playTime) {
+    refresh();
+    return SESSION_PACKER.pack(catalog, currentRows(), minutes, players, playTime);
+  }
+
+  /**
+   * Finds the games most like a game, comparing rating, difficulty, player
+   * counts, play times and year. Uses a KD-tree built with the catalog, so it
+   * does not compare the game against every other game.
+   *
+   * @param game         the game to compare against
+   * @param k            the number of games to return
+   * @param withinFilter true to only return currently filtered games
+   * @return up to k games, most similar first, never including the game itself
+   * @throws IllegalArgumentException if k is negative
+   */
+  public List<BoardGame> similarTo(BoardGame game, int k, boolean withinFilter) {
+    refresh();
+    return catalog.similarTo(game, k, withinFilter ? currentRows() : null);
+  }
+
+  /**
+   * Gets the catalog this session filters, moving to a newer published one
+   * first if there is one.
+   *
+   * @return the current catalog
+   */
+  GameCatalog currentCatalog() {
+    refresh();
+    return catalog;
+  }
+
+  /**
+   * Applies a filter and sorts the result, recording what it did so other
+   * sessions in the same state can adopt it.
+   *
+   * @param filter the filter to apply
+   * @param sortOn the sort order
+   * @return the states pushed and the sorted games
+   */
+  FilterOutcome filterOutcome(String filter, SortSpec sortOn) {
+    refresh();
+    int depth = history.depth();
+    GAME_FILTER.applyFilter(catalog, history, filter);
+    List<BoardGame> games = GAME_SORTER.sort(catalog, currentRows(), sortOn)
+        .collect(Collectors.toList());
+    lastSort = sortOn;
+    lastResult = new ResultView(catalog, history.current(), sortOn, games);
+    return new FilterOutcome(catalog, history.statesAbove(depth), sortOn, games);
+  }
+
+  /**
+   * Adopts a filter outcome computed by another session that had the same
+   * clauses over the same catalog, pushing its states instead of applying
+   * the filter again.
+   *
+   * @param outcome the other session's outcome
+   * @return false, with nothing changed, if this session is now on another catalog
+   */
+  boolean adopt(FilterOutcome outcome) {
+    refresh();
+    if (outcome.getCatalog() != catalog) {
+      return false;
+    }
+    outcome.getStates().forEach(history::push);
+    lastSort = outcome.getSortSpec();
+    lastResult = new ResultView(catalog, history.current(), lastSort, outcome.getGames());
+    return true;
+  }
+
+  /**
+   * Moves the session to the registry's current catalog if a newer one was
+   * published, replaying the applied clauses on it.
+   */
+  private void refresh() {
+    if (registry == null) {
+      return;
+    }
+    CatalogVersion latest = registry.current();
+    if (latest == version) {
+      return;
+    }
+    GameCatalog latestCatalog = latest.getCatalog();
+    FilterHistory replayed = new FilterHistory(latestCatalog);
+    for (FilterClause clause : history.clauses()) {
+      GAME_FILTER.applyClause(latestCatalog, replayed, clause);
+    }
+    this.version = latest;
+    this.catalog = latestCatalog;
+    this.history = replayed;
+  }
+
+  /**
+   * Gets the bitmap of games passing every applied clause.
+   *
+   * @return bitmap of catalog ordinals
+   */
+  private BitSet currentRows() {
+    return history.current().getRows();
   }
 }
@@ -0,0 +1,166 @@
+package student;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * Runs AsyncPlanner work for any number of sessions.
+ *
+ * Each task runs on its own virtual thread when the JVM has them (Java 21 and
+ * later), where at most maxConcurrent tasks execute at once and the rest wait
+ * for a permit, which only parks the virtual thread. Otherwise tasks run on a
+ * fixed pool of maxConcurrent daemon threads and the rest wait in its queue,
+ * so queued queries never hold a platform thread.
+ *
+ * Identical filter queries that are in flight at the same time, from sessions
+ * with the same clauses over the same catalog, are run once and the outcome
+ * shared.
+ */
+public final class PlannerExecutor implements AutoCloseable {
+
+  private final ExecutorService executor;
+  private final Semaphore permits;
+  private final ConcurrentHashMap<QueryKey, CompletableFuture<FilterOutcome>> inFlight;
+
+  /**
+   * Constructor for the PlannerExecutor.
+   *
+   * @param maxConcurrent the most tasks to execute at once
+   * @throws IllegalArgumentException if maxConcurrent is less than 1
+   */
+  public PlannerExecutor(int maxConcurrent) {
+    if (maxConcurrent < 1) {
+      throw new IllegalArgumentException("Need at least one concurrent task: " + maxConcurrent);
+    }
+    this.executor = newTaskExecutor(maxConcurrent);
+    this.permits = new Semaphore(maxConcurrent);
+    this.inFlight = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Gets the executor tasks run on, for chaining work that is too light to
+   * need a permit.
+   *
+   * @return the task executor
+   */
+  Executor tasks() {
+    return executor;
+  }
+
+  /**
+   * Runs a task once a permit is free.
+   *
+   * @param task the work to run
+   * @param <T>  the result type
+   * @return completes with the task's result, or exceptionally if it threw
+   */
+  <T> CompletableFuture<T> submit(Supplier<T> task) {
+    return CompletableFuture.supplyAsync(() -> {
+      permits.acquireUninterruptibly();
+      try {
+        return task.get();
+      } finally {
+        permits.release();
+      }
+    }, executor);
+  }
+
+  /**
+   * Runs a filter for a session, or joins an identical one already running.
+   *
+   * @param planner the session, which must not be used by anything else until this completes
+   * @param filter  the filter to apply
+   * @param sortOn  the sort order
+   * @return completes with the sorted games, with the session's state updated
+   */
+  CompletableFuture<List<BoardGame>> filter(Planner planner, String filter, SortSpec sortOn) {
+    QueryKey key = new QueryKey(planner, filter, sortOn);
+    CompletableFuture<FilterOutcome> mine = new CompletableFuture<>();
+    CompletableFuture<FilterOutcome> running = inFlight.putIfAbsent(key, mine);
+    if (running != null) {
+      return running.thenCompose(outcome -> planner.adopt(outcome)
+          ? CompletableFuture.completedFuture(outcome.getGames())
+          : submit(() -> planner.filterOutcome(filter, sortOn).getGames()));
+    }
+    submit(() -> planner.filterOutcome(filter, sortOn)).whenComplete((outcome, error) -> {
+      inFlight.remove(key, mine);
+      if (error != null) {
+        mine.completeExceptionally(error);
+      } else {
+        mine.complete(outcome);
+      }
+    });
+    return mine.thenApply(FilterOutcome::getGames);
+  }
+
+  /**
+   * Stops accepting tasks; tasks already submitted still run.
+   */
+  @Override
+  public void close() {
+    executor.shutdown();
+  }
+
+  /**
+   * Creates a virtual thread per task executor if the JVM has one. It is
+   * looked up by reflection so the planner still builds and runs on Java 17,
+   * where a pool of maxConcurrent threads is used instead; no more tasks than
+   * that ever run, so a permit is always free when one of them asks.
+   *
+   * @param maxConcurrent the most tasks to execute at once
+   * @return the executor to run tasks on
+   */
+  private static ExecutorService newTaskExecutor(int maxConcurrent) {
+    try {
+      Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+      return (ExecutorService) factory.invoke(null);
+    } catch (ReflectiveOperationException e) {
+      return Executors.newFixedThreadPool(maxConcurrent, task -> {
+        Thread thread = new Thread(task, "planner-task");
+        thread.setDaemon(true);
+        return thread;
+      });
+    }
+  }
+
+  /**
+   * Identifies a filter query: the catalog, the clauses already applied, the
+   * new filter and the sort. Queries with equal keys have equal outcomes.
+   */
+  private static final class QueryKey {
+    private final GameCatalog catalog;
+    private final List<String> clauses;
+    private final String filter;
+    private final SortSpec sortOn;
+
+    private QueryKey(Planner planner, String filter, SortSpec sortOn) {
+      this.catalog = planner.currentCatalog();
+      this.clauses = planner.getFilterChain().stream().map(FilterClause::toString).toList();
+      this.filter = filter;
+      this.sortOn = sortOn;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof QueryKey)) {
+        return false;
+      }
+      QueryKey other = (QueryKey) o;
+      return catalog == other.catalog && clauses.equals(other.clauses)
+          && filter.equals(other.filter) && sortOn.equals(other.sortOn);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(System.identityHashCode(catalog), clauses, filter, sortOn);
+    }
+  }
+}
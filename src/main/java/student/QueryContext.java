@@ -0,0 +1,102 @@
+package student;
+
+import java.time.Duration;
+
+/**
+ * Deadline and cancellation token for one query.
+ *
+ * Filtering and sorting check the token as they go, every CHECK_INTERVAL
+ * games, and stop with a QueryTimeoutException once the deadline has passed
+ * or cancel() has been called. cancel() may be called from any thread; the
+ * checks themselves are made by the one thread running the query, so a
+ * token should not be shared between queries running at the same time.
+ */
+public final class QueryContext {
+
+  /** Games processed between checks; a power of two. */
+  static final int CHECK_INTERVAL = 1024;
+
+  /** System.nanoTime() when the query is out of time, or 0 for no deadline. */
+  private final long deadline;
+  private volatile boolean cancelled;
+  private int ticks;
+
+  private QueryContext(long deadline) {
+    this.deadline = deadline;
+  }
+
+  /**
+   * Creates a token with no deadline, that only stops when cancelled.
+   *
+   * @return the token
+   */
+  public static QueryContext unbounded() {
+    return new QueryContext(0);
+  }
+
+  /**
+   * Creates a token whose deadline is the given time from now.
+   *
+   * @param timeout how long the query may run
+   * @return the token
+   * @throws IllegalArgumentException if the timeout is negative
+   */
+  public static QueryContext withTimeout(Duration timeout) {
+    if (timeout.isNegative()) {
+      throw new IllegalArgumentException("Timeout cannot be negative: " + timeout);
+    }
+    long deadline = System.nanoTime() + timeout.toNanos();
+    return new QueryContext(deadline == 0 ? 1 : deadline);
+  }
+
+  /**
+   * Asks the query to stop at its next check.
+   */
+  public void cancel() {
+    cancelled = true;
+  }
+
+  /**
+   * Checks if the query was asked to stop.
+   *
+   * @return true if cancel() was called
+   */
+  public boolean isCancelled() {
+    return cancelled;
+  }
+
+  /**
+   * Checks if the query has run out of time.
+   *
+   * @return true if there is a deadline and it has passed
+   */
+  public boolean isExpired() {
+    return deadline != 0 && System.nanoTime() - deadline >= 0;
+  }
+
+  /**
+   * Checks the token.
+   *
+   * @throws QueryTimeoutException without partial results, if the query must stop
+   */
+  void check() {
+    if (cancelled) {
+      throw new QueryTimeoutException("Query cancelled");
+    }
+    if (isExpired()) {
+      throw new QueryTimeoutException("Query deadline passed");
+    }
+  }
+
+  /**
+   * Counts one game processed, checking the token on every CHECK_INTERVAL-th,
+   * starting with the first.
+   *
+   * @throws QueryTimeoutException without partial results, if the query must stop
+   */
+  void tick() {
+    if ((ticks++ & (CHECK_INTERVAL - 1)) == 0) {
+      check();
+    }
+  }
+}
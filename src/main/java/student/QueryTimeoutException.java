@@ -0,0 +1,59 @@
+package student;
+
+import java.util.List;
+
+/**
+ * Thrown when a query passes its deadline or is cancelled, see QueryContext.
+ *
+ * The filter state is left as it was before the query. Carries the games the
+ * query had found by then: a prefix of the sorted result if it stopped while
+ * producing sorted games, otherwise games known to match, in no set order.
+ */
+public class QueryTimeoutException extends RuntimeException {
+
+  private static final long serialVersionUID = 1L;
+
+  private final List<BoardGame> partialResults;
+  private final boolean sortedPrefix;
+
+  /**
+   * Constructor for a QueryTimeoutException without partial results.
+   *
+   * @param message why the query stopped
+   */
+  public QueryTimeoutException(String message) {
+    this(message, List.of(), false);
+  }
+
+  /**
+   * Constructor for the QueryTimeoutException.
+   *
+   * @param message        why the query stopped
+   * @param partialResults games found before the query stopped
+   * @param sortedPrefix   true if the games are the first of the sorted result
+   */
+  public QueryTimeoutException(String message, List<BoardGame> partialResults,
+      boolean sortedPrefix) {
+    super(message);
+    this.partialResults = List.copyOf(partialResults);
+    this.sortedPrefix = sortedPrefix;
+  }
+
+  /**
+   * Gets the games found before the query stopped.
+   *
+   * @return the games, possibly empty
+   */
+  public List<BoardGame> getPartialResults() {
+    return partialResults;
+  }
+
+  /**
+   * Checks if the partial results are the start of the sorted result.
+   *
+   * @return true if they are in final order with nothing missing before them
+   */
+  public boolean isSortedPrefix() {
+    return sortedPrefix;
+  }
+}
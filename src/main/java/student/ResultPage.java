@@ -0,0 +1,83 @@
+package student;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * One page of a sorted filter result, as produced by GamePager.
+ *
+ * The next page is fetched by passing getNextCursor() back to
+ * Planner.page. The cursor remembers where this page ended, not a page
+ * number, so fetching a later page does not sort or skip the earlier ones.
+ */
+public final class ResultPage {
+
+  private final List<BoardGame> games;
+  private final String nextCursor;
+
+  /**
+   * Constructor for the ResultPage.
+   *
+   * @param games      the games on the page, in sorted order
+   * @param nextCursor cursor for the page after this one, or null if this is the last page
+   */
+  ResultPage(List<BoardGame> games, String nextCursor) {
+    this.games = List.copyOf(games);
+    this.nextCursor = nextCursor;
+  }
+
+  /**
+   * Gets the games on the page.
+   *
+   * @return the games, in sorted order
+   */
+  public List<BoardGame> getGames() {
+    return games;
+  }
+
+  /**
+   * Streams the games on the page.
+   *
+   * @return stream of the games, in sorted order
+   */
+  public Stream<BoardGame> stream() {
+    return games.stream();
+  }
+
+  /**
+   * Gets the number of games on the page.
+   *
+   * @return number of games, at most the page size
+   */
+  public int size() {
+    return games.size();
+  }
+
+  /**
+   * Checks if there are more games after this page.
+   *
+   * @return true if getNextCursor() can be used to fetch another page
+   */
+  public boolean hasNext() {
+    return nextCursor != null;
+  }
+
+  /**
+   * Gets the opaque cursor for the next page.
+   *
+   * @return the cursor, or null if this is the last page
+   */
+  public String getNextCursor() {
+    return nextCursor;
+  }
+
+  /**
+   * Get a toString that shows the page size.
+   *
+   * @return string representation of the page
+   */
+  @Override
+  public String toString() {
+    return "ResultPage{" + "games=" + games.size() + ", hasNext=" + hasNext() + '}';
+  }
+}
@@ -0,0 +1,101 @@
+package student;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Read-only, indexable view of a Planner's most recent filter result, in the
+ * order it was sorted in, as returned by Planner.getLastResult().
+ *
+ * The view is built once per filter state and sort and then reused, so
+ * selecting games by number from it is O(1) and contains() is a bitmap
+ * lookup. It is a snapshot: later filters give a new view rather than
+ * changing this one.
+ */
+public final class ResultView extends AbstractList<BoardGame> implements RandomAccess {
+
+  private final GameCatalog catalog;
+  private final FilterState state;
+  private final SortSpec sortOn;
+  private final List<BoardGame> games;
+
+  /**
+   * Constructor for the ResultView.
+   *
+   * @param catalog the catalog the result is from
+   * @param state   the filter state the result is of
+   * @param sortOn  the sort the games are in
+   * @param games   the filtered games, sorted
+   */
+  ResultView(GameCatalog catalog, FilterState state, SortSpec sortOn, List<BoardGame> games) {
+    this.catalog = catalog;
+    this.state = state;
+    this.sortOn = sortOn;
+    this.games = games;
+  }
+
+  @Override
+  public BoardGame get(int index) {
+    return games.get(index);
+  }
+
+  @Override
+  public int size() {
+    return games.size();
+  }
+
+  /**
+   * Checks if a game is in the result, without searching the list.
+   *
+   * @param o the game to look for
+   * @return true if the game passed the filter
+   */
+  @Override
+  public boolean contains(Object o) {
+    if (!(o instanceof BoardGame)) {
+      return false;
+    }
+    int ordinal = catalog.ordinalOf((BoardGame) o);
+    return ordinal >= 0 && state.getRows().get(ordinal);
+  }
+
+  /**
+   * Finds a game in the result by name in O(1), ignoring case and extra
+   * whitespace, through the name index of the catalog the result is from.
+   * If several games in the result have that name, the one with the lowest
+   * id is found.
+   *
+   * @param name the name to look up
+   * @return the game, or null if no game in the result has that name
+   */
+  public BoardGame findByName(String name) {
+    for (BoardGame game : catalog.findAllByName(name)) {
+      if (contains(game)) {
+        return game;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Gets the sort the games are in.
+   *
+   * @return the sort of the filter call that produced the result
+   */
+  public SortSpec getSortSpec() {
+    return sortOn;
+  }
+
+  /**
+   * Checks if the view still shows a planner's result.
+   *
+   * @param currentCatalog the planner's catalog
+   * @param currentState   the planner's current filter state
+   * @param currentSort    the sort of the planner's last filter call
+   * @return true if none of them changed since the view was built
+   */
+  boolean isCurrent(GameCatalog currentCatalog, FilterState currentState, SortSpec currentSort) {
+    return catalog == currentCatalog && state == currentState && sortOn.equals(currentSort);
+  }
+}
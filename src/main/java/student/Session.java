@@ -0,0 +1,119 @@
+package student;
+
+/**
+ * One user's planner and game list, as handed out by SessionManager.
+ *
+ * Every open or get leases the session, and the manager never spills a
+ * leased session, so it cannot be saved away while a change is half made.
+ * Close the session when the request is done, for example with
+ * try-with-resources. Once closed it may be spilled, after which this object
+ * is stale; fetch the session from the manager again for every request
+ * instead of holding on to it.
+ */
+public final class Session implements AutoCloseable {
+
+  private final String id;
+  private final Planner planner;
+  private final GameList gameList;
+  private final SessionManager manager;
+  /** Leases not yet closed, guarded by the manager. */
+  private int leases;
+  /** When the session was last handed out, in clock millis. */
+  private long lastAccess;
+
+  /**
+   * Constructor for the Session.
+   *
+   * @param id         the session id
+   * @param planner    the user's filter state
+   * @param gameList   the user's game list
+   * @param lastAccess when the session was last used, in clock millis
+   * @param manager    the manager that leases it out
+   */
+  Session(String id, Planner planner, GameList gameList, long lastAccess,
+      SessionManager manager) {
+    this.id = id;
+    this.planner = planner;
+    this.gameList = gameList;
+    this.lastAccess = lastAccess;
+    this.manager = manager;
+    this.leases = 0;
+  }
+
+  /**
+   * Gets the session id.
+   *
+   * @return the id to fetch the session again with
+   */
+  public String getId() {
+    return id;
+  }
+
+  /**
+   * Gets the user's planner.
+   *
+   * @return the planner
+   */
+  public Planner getPlanner() {
+    return planner;
+  }
+
+  /**
+   * Gets the user's game list.
+   *
+   * @return the game list
+   */
+  public GameList getGameList() {
+    return gameList;
+  }
+
+  /**
+   * Gets when the session was last handed out.
+   *
+   * @return clock millis
+   */
+  long getLastAccess() {
+    return lastAccess;
+  }
+
+  /**
+   * Records that the session was handed out.
+   *
+   * @param now clock millis
+   */
+  void touch(long now) {
+    this.lastAccess = now;
+  }
+
+  /**
+   * Hands the session back to the manager. Once every caller that opened or
+   * fetched it has closed it, it may be spilled.
+   */
+  @Override
+  public void close() {
+    manager.release(this);
+  }
+
+  /**
+   * Records a lease handed out by the manager.
+   */
+  void lease() {
+    leases++;
+  }
+
+  /**
+   * Records that a lease was closed. Extra closes are ignored.
+   */
+  void unlease() {
+    leases = Math.max(0, leases - 1);
+  }
+
+  /**
+   * Checks if any lease is still open.
+   *
+   * @return true if the session is in use and must not be spilled
+   */
+  boolean isLeased() {
+    return leases > 0;
+  }
+}
@@ -0,0 +1,287 @@
+package student;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Registry of user sessions over one shared catalog.
+ *
+ * Live sessions hold a Planner and a GameList. To bound memory, a session is
+ * spilled when it has been idle longer than the idle timeout, or, least
+ * recently used first, when the estimated memory of all live sessions goes
+ * over the budget. A spilled session keeps only its filter clauses and its
+ * listed games; fetching it again rebuilds it by replaying the
+ * clauses, so the user sees the same filter, undo history and list as before.
+ *
+ * Sessions are leased: open and get hand a session out, and it is not
+ * spilled until every caller has closed it again, so nothing reads a session
+ * for spilling while another thread is changing it.
+ *
+ * Spilled sessions are kept until closed. All methods are synchronized; the
+ * sessions handed out are not, and each should be used by one thread at a time.
+ */
+public class SessionManager {
+
+  /** Estimated bytes of a session without filters or listed games. */
+  private static final long SESSION_BYTES = 512;
+  /** Estimated bytes of a filter state besides its bitmap: facet counts and objects. */
+  private static final long STATE_BYTES = 256;
+  /** Estimated bytes of one game in a game list, with its name index entry. */
+  private static final long LIST_ENTRY_BYTES = 128;
+
+  private final CatalogRegistry registry;
+  private final long memoryBudget;
+  private final long idleMillis;
+  private final Clock clock;
+  /** Live sessions, least recently used first. */
+  private final LinkedHashMap<String, Session> live;
+  private final Map<String, Spilled> spilled;
+  private long nextId;
+
+  /**
+   * Constructor for the SessionManager.
+   *
+   * @param catalog      the catalog every session filters
+   * @param memoryBudget estimated bytes all live sessions may use together
+   * @param idleTimeout  how long a session can go unused before it is spilled
+   */
+  public SessionManager(GameCatalog catalog, long memoryBudget, Duration idleTimeout) {
+    this(catalog, memoryBudget, idleTimeout, Clock.systemUTC());
+  }
+
+  /**
+   * Constructor for a SessionManager with its own clock, for example for tests.
+   *
+   * @param catalog      the catalog every session filters
+   * @param memoryBudget estimated bytes all live sessions may use together
+   * @param idleTimeout  how long a session can go unused before it is spilled
+   * @param clock        the clock idle time is measured with
+   */
+  public SessionManager(GameCatalog catalog, long memoryBudget, Duration idleTimeout,
+      Clock clock) {
+    this(new CatalogRegistry(catalog), memoryBudget, idleTimeout, clock);
+  }
+
+  /**
+   * Constructor for a SessionManager whose sessions follow the registry's
+   * current catalog, replaying their filters when a new one is published.
+   *
+   * @param registry     publishes the catalog every session filters
+   * @param memoryBudget estimated bytes all live sessions may use together
+   * @param idleTimeout  how long a session can go unused before it is spilled
+   */
+  public SessionManager(CatalogRegistry registry, long memoryBudget, Duration idleTimeout) {
+    this(registry, memoryBudget, idleTimeout, Clock.systemUTC());
+  }
+
+  /**
+   * Constructor for a SessionManager over a registry, with its own clock.
+   *
+   * @param registry     publishes the catalog every session filters
+   * @param memoryBudget estimated bytes all live sessions may use together
+   * @param idleTimeout  how long a session can go unused before it is spilled
+   * @param clock        the clock idle time is measured with
+   */
+  public SessionManager(CatalogRegistry registry, long memoryBudget, Duration idleTimeout,
+      Clock clock) {
+    this.registry = registry;
+    this.memoryBudget = memoryBudget;
+    this.idleMillis = idleTimeout.toMillis();
+    this.clock = clock;
+    this.live = new LinkedHashMap<>(16, 0.75f, true);
+    this.spilled = new HashMap<>();
+    this.nextId = 0;
+  }
+
+  /**
+   * Starts a new session, leased to the caller.
+   *
+   * @return the session, with no filters and an empty list; close it when done
+   */
+  public synchronized Session open() {
+    String id = "s" + (++nextId);
+    Session session = new Session(id, new Planner(registry),
+        new GameList(registry.getCatalog()), clock.millis(), this);
+    session.lease();
+    live.put(id, session);
+    evict();
+    return session;
+  }
+
+  /**
+   * Gets a session, leased to the caller, rebuilding it first if it was
+   * spilled.
+   *
+   * @param id the session id
+   * @return the session; close it when done
+   * @throws IllegalArgumentException if there is no session with that id
+   */
+  public synchronized Session get(String id) {
+    long now = clock.millis();
+    Session session = live.get(id);
+    if (session == null) {
+      Spilled saved = spilled.remove(id);
+      if (saved == null) {
+        throw new IllegalArgumentException("No session with id " + id);
+      }
+      session = rehydrate(id, saved, now);
+      live.put(id, session);
+    }
+    session.touch(now);
+    session.lease();
+    evict();
+    return session;
+  }
+
+  /**
+   * Ends a lease on a session, called when the session is closed.
+   *
+   * @param session a session handed out by this manager
+   */
+  synchronized void release(Session session) {
+    session.unlease();
+  }
+
+  /**
+   * Ends a session, live or spilled.
+   *
+   * @param id the session id
+   * @return true if the session existed
+   */
+  public synchronized boolean close(String id) {
+    return live.remove(id) != null || spilled.remove(id) != null;
+  }
+
+  /**
+   * Spills sessions that have been idle too long, then the least recently
+   * used ones until the live sessions fit the memory budget. Runs on every
+   * open and get; call it from a timer to also spill while nobody is active.
+   * Leased sessions are never spilled, nor is the most recently used session
+   * spilled for the budget, so live sessions can stay over budget while they
+   * are in use.
+   */
+  public synchronized void evict() {
+    long now = clock.millis();
+    long total = 0;
+    for (Iterator<Session> it = live.values().iterator(); it.hasNext();) {
+      Session session = it.next();
+      if (!session.isLeased() && now - session.getLastAccess() > idleMillis) {
+        it.remove();
+        spill(session);
+      } else {
+        total += estimateMemory(session);
+      }
+    }
+    int remaining = live.size();
+    for (Iterator<Session> it = live.values().iterator();
+        total > memoryBudget && --remaining > 0;) {
+      Session session = it.next();
+      if (!session.isLeased()) {
+        total -= estimateMemory(session);
+        it.remove();
+        spill(session);
+      }
+    }
+  }
+
+  /**
+   * Gets the number of live sessions.
+   *
+   * @return sessions held in memory
+   */
+  public synchronized int getLiveCount() {
+    return live.size();
+  }
+
+  /**
+   * Gets the number of spilled sessions.
+   *
+   * @return sessions that will be rebuilt when next fetched
+   */
+  public synchronized int getSpilledCount() {
+    return spilled.size();
+  }
+
+  /**
+   * Gets the estimated memory of all live sessions.
+   *
+   * @return estimated bytes
+   */
+  public synchronized long getEstimatedMemory() {
+    long total = 0;
+    for (Session session : live.values()) {
+      total += estimateMemory(session);
+    }
+    return total;
+  }
+
+  /**
+   * Estimates the memory of a session: each applied clause keeps a bitmap over
+   * the catalog and its facet counts, and each listed game an entry.
+   *
+   * @param session a live session
+   * @return estimated bytes
+   */
+  private long estimateMemory(Session session) {
+    long bitmapBytes = (registry.getCatalog().size() + Long.SIZE - 1) / Long.SIZE * Long.BYTES;
+    return SESSION_BYTES
+        + session.getPlanner().getFilterDepth() * (bitmapBytes + STATE_BYTES)
+        + session.getGameList().count() * LIST_ENTRY_BYTES;
+  }
+
+  /**
+   * Saves what is needed to rebuild a session.
+   *
+   * @param session the session being spilled
+   */
+  private void spill(Session session) {
+    List<String> clauses = new ArrayList<>();
+    for (FilterClause clause : session.getPlanner().getFilterChain()) {
+      clauses.add(clause.toString());
+    }
+    spilled.put(session.getId(), new Spilled(clauses, session.getGameList().getGames()));
+  }
+
+  /**
+   * Rebuilds a spilled session on the current catalog, replaying its clauses
+   * one at a time so undo still steps back through them. Listed games are
+   * taken from the current catalog when it still has them.
+   *
+   * @param id    the session id
+   * @param saved what was saved when it was spilled
+   * @param now   clock millis
+   * @return the rebuilt session
+   */
+  private Session rehydrate(String id, Spilled saved, long now) {
+    GameCatalog catalog = registry.getCatalog();
+    Planner planner = new Planner(registry);
+    for (String clause : saved.clauses) {
+      planner.filter(clause);
+    }
+    GameList gameList = new GameList(catalog);
+    List<BoardGame> games = new ArrayList<>(saved.listed.size());
+    for (BoardGame game : saved.listed) {
+      int ordinal = catalog.ordinalOf(game);
+      games.add(ordinal >= 0 ? catalog.get(ordinal) : game);
+    }
+    gameList.addGames(games);
+    return new Session(id, planner, gameList, now, this);
+  }
+
+  /** A spilled session: its filter clauses in filter syntax and its listed games. */
+  private static final class Spilled {
+    private final List<String> clauses;
+    private final List<BoardGame> listed;
+
+    private Spilled(List<String> clauses, List<BoardGame> listed) {
+      this.clauses = clauses;
+      this.listed = listed;
+    }
+  }
+}
@@ -0,0 +1,152 @@
+package student;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Picks the set of games that fills a play session best.
+ *
+ * Given the filtered games, a session length and a player count, chooses
+ * games that support that many players and whose play times add up to no more
+ * than the session length, maximizing their summed rating. Each game is
+ * played at most once.
+ *
+ * This is a knapsack problem, solved exactly with dynamic programming over
+ * minutes. Games are first grouped by play time: at most minutes / t games of
+ * play time t can ever fit, so only the best rated ones of each group are kept
+ * (a bounded knapsack), which keeps the table small for large catalogs.
+ *
+ * Only the single best plan is produced; runner-up plans are not enumerated.
+ * Its games can be streamed highest rated first with SessionPlan.stream().
+ */
+public class SessionPacker {
+
+  /**
+   * Plans a session from the filtered games.
+   *
+   * @param catalog  the catalog the bitmap refers to
+   * @param rows     bitmap of the filtered games
+   * @param minutes  length of the session
+   * @param players  number of players
+   * @param playTime which play time to budget with, MIN_TIME or MAX_TIME
+   * @return the one best plan, with no games if none fit
+   * @throws IllegalArgumentException if minutes is negative, players is less
+   *                                  than 1, or playTime is not a time column
+   */
+  public SessionPlan pack(GameCatalog catalog, BitSet rows, int minutes, int players,
+      GameData playTime) {
+    if (minutes < 0) {
+      throw new IllegalArgumentException("Session length cannot be negative: " + minutes);
+    }
+    if (players < 1) {
+      throw new IllegalArgumentException("Need at least one player: " + players);
+    }
+    if (playTime != GameData.MIN_TIME && playTime != GameData.MAX_TIME) {
+      throw new IllegalArgumentException("Not a play time column: " + playTime.getColumnName());
+    }
+
+    int[] candidates = candidates(catalog, rows, minutes, players, playTime);
+    double[] times = catalog.column(playTime);
+    double[] ratings = catalog.column(GameData.RATING);
+    int count = candidates.length;
+
+    // best[c] is the best summed rating using at most c minutes; taken[i] marks
+    // the capacities at which candidate i improved it, for backtracking
+    double[] best = new double[minutes + 1];
+    BitSet[] taken = new BitSet[count];
+    for (int i = 0; i < count; i++) {
+      int weight = weight(times[candidates[i]]);
+      double rating = ratings[candidates[i]];
+      taken[i] = new BitSet(minutes + 1);
+      for (int c = minutes; c >= weight; c--) {
+        double with = best[c - weight] + rating;
+        if (with > best[c]) {
+          best[c] = with;
+          taken[i].set(c);
+        }
+      }
+    }
+
+    List<BoardGame> chosen = new ArrayList<>();
+    int used = 0;
+    int c = minutes;
+    for (int i = count - 1; i >= 0; i--) {
+      if (taken[i].get(c)) {
+        int weight = weight(times[candidates[i]]);
+        chosen.add(catalog.get(candidates[i]));
+        used += weight;
+        c -= weight;
+      }
+    }
+    return new SessionPlan(chosen, minutes, used, best[minutes]);
+  }
+
+  /**
+   * Selects the games worth considering: they support the players, fit the
+   * session on their own, have a positive rating, and are among the best
+   * minutes / t rated games of their play time t.
+   *
+   * @param catalog  the catalog the bitmap refers to
+   * @param rows     bitmap of the filtered games
+   * @param minutes  length of the session
+   * @param players  number of players
+   * @param playTime which play time to budget with
+   * @return ordinals of the candidates, in ordinal order
+   */
+  private int[] candidates(GameCatalog catalog, BitSet rows, int minutes, int players,
+      GameData playTime) {
+    BitSet eligible = catalog.fits(GameData.MIN_PLAYERS, players);
+    eligible.and(rows);
+    double[] times = catalog.column(playTime);
+    double[] ratings = catalog.column(GameData.RATING);
+
+    // bucket eligible ordinals by weight
+    int[] perWeight = new int[minutes + 1];
+    for (int i = eligible.nextSetBit(0); i >= 0; i = eligible.nextSetBit(i + 1)) {
+      int weight = weight(times[i]);
+      if (weight > minutes || !(ratings[i] > 0)) {
+        eligible.clear(i);
+      } else {
+        perWeight[weight]++;
+      }
+    }
+    int[][] byWeight = new int[minutes + 1][];
+    for (int w = 1; w <= minutes; w++) {
+      byWeight[w] = new int[perWeight[w]];
+      perWeight[w] = 0;
+    }
+    for (int i = eligible.nextSetBit(0); i >= 0; i = eligible.nextSetBit(i + 1)) {
+      int weight = weight(times[i]);
+      byWeight[weight][perWeight[weight]++] = i;
+    }
+
+    // keep the best rated minutes / w of each weight w
+    BitSet kept = new BitSet(catalog.size());
+    for (int w = 1; w <= minutes; w++) {
+      int[] group = byWeight[w];
+      int limit = minutes / w;
+      if (group.length > limit) {
+        group = Arrays.stream(group).boxed()
+            .sorted((a, b) -> Double.compare(ratings[b], ratings[a]))
+            .limit(limit).mapToInt(Integer::intValue).toArray();
+      }
+      for (int ordinal : group) {
+        kept.set(ordinal);
+      }
+    }
+    return kept.stream().toArray();
+  }
+
+  /**
+   * Gets the minutes a game takes out of the budget. Games listed with no play
+   * time still cost a minute, so they cannot be added without limit.
+   *
+   * @param time the game's play time
+   * @return weight of at least 1
+   */
+  private static int weight(double time) {
+    return Math.max(1, (int) time);
+  }
+}
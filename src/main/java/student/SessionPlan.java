@@ -0,0 +1,90 @@
+package student;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * A set of games chosen to fill a play session, as produced by SessionPacker.
+ */
+public final class SessionPlan {
+
+  private final List<BoardGame> games;
+  private final int budget;
+  private final int minutes;
+  private final double totalRating;
+
+  /**
+   * Constructor for the SessionPlan.
+   *
+   * @param games       the chosen games
+   * @param budget      the session length that was planned for, in minutes
+   * @param minutes     the play time the chosen games add up to
+   * @param totalRating the summed rating of the chosen games
+   */
+  SessionPlan(List<BoardGame> games, int budget, int minutes, double totalRating) {
+    this.games = games.stream()
+        .sorted(Comparator.comparingDouble(BoardGame::getRating).reversed()
+            .thenComparing(game -> game.getName().toLowerCase()))
+        .toList();
+    this.budget = budget;
+    this.minutes = minutes;
+    this.totalRating = totalRating;
+  }
+
+  /**
+   * Gets the chosen games, highest rated first.
+   *
+   * @return the games in the plan
+   */
+  public List<BoardGame> getGames() {
+    return games;
+  }
+
+  /**
+   * Streams the chosen games, highest rated first.
+   *
+   * @return stream of the games in the plan
+   */
+  public Stream<BoardGame> stream() {
+    return games.stream();
+  }
+
+  /**
+   * Gets the session length that was planned for.
+   *
+   * @return budget in minutes
+   */
+  public int getBudget() {
+    return budget;
+  }
+
+  /**
+   * Gets the play time the chosen games add up to.
+   *
+   * @return minutes used, never more than the budget
+   */
+  public int getMinutes() {
+    return minutes;
+  }
+
+  /**
+   * Gets the summed rating of the chosen games, which the plan maximizes.
+   *
+   * @return total rating
+   */
+  public double getTotalRating() {
+    return totalRating;
+  }
+
+  /**
+   * Get a toString that shows the plan totals.
+   *
+   * @return string representation of the plan
+   */
+  @Override
+  public String toString() {
+    return "SessionPlan{" + "games=" + games.size() + ", minutes=" + minutes + "/" + budget
+        + ", totalRating=" + totalRating + '}';
+  }
+}
@@ -0,0 +1,303 @@
+package student;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * KD-tree over the normalized numeric features of every catalog game, for
+ * "games like this" (k nearest neighbour) queries.
+ *
+ * Features are rating, difficulty, min and max players, min and max play time
+ * and year, each scaled to [0, 1] over the catalog's range so no one column
+ * dominates the distance. Play times are scaled on a log scale first, as a
+ * handful of very long games would otherwise squash every other game together.
+ *
+ * The tree is stored implicitly: ids[lo..hi] is a subtree whose root is the
+ * middle element, split on dimension depth % DIMENSIONS.
+ */
+public class SimilarityIndex {
+
+  /** Columns used as features, in dimension order. */
+  private static final GameData[] FEATURES = {GameData.RATING, GameData.DIFFICULTY,
+      GameData.MIN_PLAYERS, GameData.MAX_PLAYERS, GameData.MIN_TIME, GameData.MAX_TIME,
+      GameData.YEAR};
+  private static final int DIMENSIONS = FEATURES.length;
+  /** Below this share of the catalog, a filtered query just scans the filtered games. */
+  private static final int SCAN_DIVISOR = 16;
+
+  private final GameCatalog catalog;
+  private final double[] lows;
+  private final double[] spans;
+  /** Normalized features, DIMENSIONS per ordinal. */
+  private final double[] points;
+  private final int[] ids;
+
+  /**
+   * Constructor for the SimilarityIndex.
+   *
+   * @param catalog the catalog to index
+   */
+  public SimilarityIndex(GameCatalog catalog) {
+    this.catalog = catalog;
+    this.lows = new double[DIMENSIONS];
+    this.spans = new double[DIMENSIONS];
+    for (int d = 0; d < DIMENSIONS; d++) {
+      lows[d] = scale(FEATURES[d], catalog.min(FEATURES[d]));
+      double span = scale(FEATURES[d], catalog.max(FEATURES[d])) - lows[d];
+      spans[d] = span > 0 ? span : 1;
+    }
+
+    int n = catalog.size();
+    this.points = new double[n * DIMENSIONS];
+    for (int d = 0; d < DIMENSIONS; d++) {
+      double[] column = catalog.column(FEATURES[d]);
+      for (int i = 0; i < n; i++) {
+        points[i * DIMENSIONS + d] = normalize(d, column[i]);
+      }
+    }
+    this.ids = new int[n];
+    for (int i = 0; i < n; i++) {
+      ids[i] = i;
+    }
+    build(0, n - 1, 0);
+  }
+
+  /**
+   * Finds the games most similar to a game, closest first. The game itself is
+   * never included.
+   *
+   * @param game  the game to compare against; it does not need to be in the catalog
+   * @param k     the number of games to return
+   * @param rows  bitmap of the games allowed in the result, or null for any game
+   * @return up to k games, closest first
+   * @throws IllegalArgumentException if k is negative
+   */
+  public List<BoardGame> nearest(BoardGame game, int k, BitSet rows) {
+    if (k < 0) {
+      throw new IllegalArgumentException("Number of games cannot be negative: " + k);
+    }
+    if (k == 0) {
+      return new ArrayList<>();
+    }
+    double[] query = new double[DIMENSIONS];
+    for (int d = 0; d < DIMENSIONS; d++) {
+      query[d] = normalize(d, value(game, FEATURES[d]));
+    }
+    Neighbours found = new Neighbours(Math.min(k, ids.length));
+    int self = catalog.ordinalOf(game);
+    if (rows != null && rows.cardinality() < ids.length / SCAN_DIVISOR) {
+      for (int i = rows.nextSetBit(0); i >= 0; i = rows.nextSetBit(i + 1)) {
+        if (i != self) {
+          found.offer(i, distance(query, i));
+        }
+      }
+    } else {
+      search(query, 0, ids.length - 1, 0, rows, self, found);
+    }
+    List<BoardGame> games = new ArrayList<>(found.size);
+    for (int ordinal : found.sorted()) {
+      games.add(catalog.get(ordinal));
+    }
+    return games;
+  }
+
+  /**
+   * Recursively searches a subtree, visiting the side of the split nearest the
+   * query first and the far side only if it could still hold a closer game.
+   */
+  private void search(double[] query, int lo, int hi, int depth, BitSet rows, int self,
+      Neighbours found) {
+    if (lo > hi) {
+      return;
+    }
+    int mid = (lo + hi) >>> 1;
+    int ordinal = ids[mid];
+    if (ordinal != self && (rows == null || rows.get(ordinal))) {
+      found.offer(ordinal, distance(query, ordinal));
+    }
+    int dim = depth % DIMENSIONS;
+    double diff = query[dim] - points[ordinal * DIMENSIONS + dim];
+    if (diff < 0) {
+      search(query, lo, mid - 1, depth + 1, rows, self, found);
+      if (diff * diff < found.worst()) {
+        search(query, mid + 1, hi, depth + 1, rows, self, found);
+      }
+    } else {
+      search(query, mid + 1, hi, depth + 1, rows, self, found);
+      if (diff * diff < found.worst()) {
+        search(query, lo, mid - 1, depth + 1, rows, self, found);
+      }
+    }
+  }
+
+  /**
+   * Arranges ids[lo..hi] into a subtree, placing the median on the split
+   * dimension in the middle (quickselect) and recursing on both halves.
+   */
+  private void build(int lo, int hi, int depth) {
+    if (lo >= hi) {
+      return;
+    }
+    int mid = (lo + hi) >>> 1;
+    int dim = depth % DIMENSIONS;
+    int left = lo;
+    int right = hi;
+    while (left < right) {
+      double pivot = points[ids[(left + right) >>> 1] * DIMENSIONS + dim];
+      int i = left;
+      int j = right;
+      while (i <= j) {
+        while (points[ids[i] * DIMENSIONS + dim] < pivot) {
+          i++;
+        }
+        while (points[ids[j] * DIMENSIONS + dim] > pivot) {
+          j--;
+        }
+        if (i <= j) {
+          int swap = ids[i];
+          ids[i] = ids[j];
+          ids[j] = swap;
+          i++;
+          j--;
+        }
+      }
+      if (mid <= j) {
+        right = j;
+      } else if (mid >= i) {
+        left = i;
+      } else {
+        break;
+      }
+    }
+    build(lo, mid - 1, depth + 1);
+    build(mid + 1, hi, depth + 1);
+  }
+
+  /**
+   * Squared distance between the query and a catalog game.
+   */
+  private double distance(double[] query, int ordinal) {
+    double sum = 0;
+    int base = ordinal * DIMENSIONS;
+    for (int d = 0; d < DIMENSIONS; d++) {
+      double diff = query[d] - points[base + d];
+      sum += diff * diff;
+    }
+    return sum;
+  }
+
+  /**
+   * Scales a raw feature value to [0, 1] over the catalog's range.
+   */
+  private double normalize(int dim, double value) {
+    return (scale(FEATURES[dim], value) - lows[dim]) / spans[dim];
+  }
+
+  /**
+   * Puts play times on a log scale; other features are used as they are.
+   */
+  private static double scale(GameData feature, double value) {
+    if (feature == GameData.MIN_TIME || feature == GameData.MAX_TIME) {
+      return Math.log1p(Math.max(0, value));
+    }
+    return value;
+  }
+
+  /**
+   * Reads a feature from a game that may not be in the catalog.
+   */
+  private static double value(BoardGame game, GameData feature) {
+    switch (feature) {
+      case RATING:
+        return game.getRating();
+      case DIFFICULTY:
+        return game.getDifficulty();
+      case MIN_PLAYERS:
+        return game.getMinPlayers();
+      case MAX_PLAYERS:
+        return game.getMaxPlayers();
+      case MIN_TIME:
+        return game.getMinPlayTime();
+      case MAX_TIME:
+        return game.getMaxPlayTime();
+      default:
+        return game.getYearPublished();
+    }
+  }
+
+  /**
+   * Bounded max-heap of the k closest games found so far, on primitive arrays.
+   */
+  private static final class Neighbours {
+    private final int[] ordinals;
+    private final double[] distances;
+    private int size;
+
+    private Neighbours(int capacity) {
+      this.ordinals = new int[capacity];
+      this.distances = new double[capacity];
+      this.size = 0;
+    }
+
+    /** Distance a game must beat to be kept, infinite until the heap is full. */
+    private double worst() {
+      return size < ordinals.length ? Double.POSITIVE_INFINITY : distances[0];
+    }
+
+    private void offer(int ordinal, double distance) {
+      if (size < ordinals.length) {
+        ordinals[size] = ordinal;
+        distances[size] = distance;
+        siftUp(size++);
+      } else if (distance < distances[0]) {
+        ordinals[0] = ordinal;
+        distances[0] = distance;
+        siftDown(0);
+      }
+    }
+
+    private void siftUp(int i) {
+      while (i > 0 && distances[(i - 1) / 2] < distances[i]) {
+        swap(i, (i - 1) / 2);
+        i = (i - 1) / 2;
+      }
+    }
+
+    private void siftDown(int i) {
+      while (true) {
+        int largest = i;
+        for (int child = 2 * i + 1; child <= 2 * i + 2 && child < size; child++) {
+          if (distances[child] > distances[largest]) {
+            largest = child;
+          }
+        }
+        if (largest == i) {
+          return;
+        }
+        swap(i, largest);
+        i = largest;
+      }
+    }
+
+    private void swap(int a, int b) {
+      int ordinal = ordinals[a];
+      ordinals[a] = ordinals[b];
+      ordinals[b] = ordinal;
+      double distance = distances[a];
+      distances[a] = distances[b];
+      distances[b] = distance;
+    }
+
+    /** Empties the heap, returning the ordinals closest first. */
+    private int[] sorted() {
+      int[] result = new int[size];
+      while (size > 0) {
+        result[size - 1] = ordinals[0];
+        swap(0, --size);
+        siftDown(0);
+      }
+      return result;
+    }
+  }
+}
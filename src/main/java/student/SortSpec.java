@@ -0,0 +1,146 @@
+package student;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A compound sort order, such as "rating desc, name asc".
+ *
+ * Games that are equal on every key are always ordered by id, so a sorted
+ * result is the same every time it is produced and can be cached or paged.
+ */
+public final class SortSpec {
+
+  private final List<GameData> columns;
+  private final List<Boolean> ascending;
+
+  /**
+   * Constructor for the SortSpec.
+   *
+   * @param columns   the columns to sort on, most significant first
+   * @param ascending the direction of each column
+   */
+  private SortSpec(List<GameData> columns, List<Boolean> ascending) {
+    this.columns = List.copyOf(columns);
+    this.ascending = List.copyOf(ascending);
+  }
+
+  /**
+   * Creates a sort on a single column.
+   *
+   * @param column    the column to sort on
+   * @param ascending true for ascending order
+   * @return the sort spec
+   */
+  public static SortSpec of(GameData column, boolean ascending) {
+    return new SortSpec(List.of(column), List.of(ascending));
+  }
+
+  /**
+   * Parses a sort spec: a comma separated list of columns, each optionally
+   * followed by asc or desc (ascending is the default). Columns can be given by
+   * enum name or csv name, ignoring case.
+   *
+   * @param spec the text to parse, for example "rating desc, name"
+   * @return the sort spec
+   * @throws IllegalArgumentException if the spec is empty or a part is not valid
+   */
+  public static SortSpec parse(String spec) {
+    List<GameData> columns = new ArrayList<>();
+    List<Boolean> ascending = new ArrayList<>();
+    for (String part : spec.split(",", -1)) {
+      String[] words = part.trim().split("\\s+");
+      if (words[0].isEmpty() || words.length > 2) {
+        throw new IllegalArgumentException("Invalid sort: '" + part.trim() + "'");
+      }
+      columns.add(GameData.fromString(words[0]));
+      if (words.length == 1 || words[1].equalsIgnoreCase("asc")) {
+        ascending.add(true);
+      } else if (words[1].equalsIgnoreCase("desc")) {
+        ascending.add(false);
+      } else {
+        throw new IllegalArgumentException("Invalid sort direction: '" + words[1] + "'");
+      }
+    }
+    return new SortSpec(columns, ascending);
+  }
+
+  /**
+   * Creates a sort that breaks ties of this one with another column.
+   *
+   * @param column    the column to sort ties on
+   * @param ascending true for ascending order
+   * @return a new sort spec with the column added last
+   */
+  public SortSpec then(GameData column, boolean ascending) {
+    List<GameData> moreColumns = new ArrayList<>(columns);
+    List<Boolean> moreAscending = new ArrayList<>(this.ascending);
+    moreColumns.add(column);
+    moreAscending.add(ascending);
+    return new SortSpec(moreColumns, moreAscending);
+  }
+
+  /**
+   * Gets the number of columns sorted on.
+   *
+   * @return number of sort keys
+   */
+  public int size() {
+    return columns.size();
+  }
+
+  /**
+   * Gets a sort column.
+   *
+   * @param index position of the key, 0 being the most significant
+   * @return the column
+   */
+  public GameData getColumn(int index) {
+    return columns.get(index);
+  }
+
+  /**
+   * Gets the direction of a sort column.
+   *
+   * @param index position of the key, 0 being the most significant
+   * @return true if the column is sorted ascending
+   */
+  public boolean isAscending(int index) {
+    return ascending.get(index);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof SortSpec)) {
+      return false;
+    }
+    SortSpec other = (SortSpec) o;
+    return columns.equals(other.columns) && ascending.equals(other.ascending);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(columns, ascending);
+  }
+
+  /**
+   * Get a toString in the same form parse accepts.
+   *
+   * @return for example "rating desc, name asc"
+   */
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < columns.size(); i++) {
+      if (i > 0) {
+        sb.append(", ");
+      }
+      sb.append(columns.get(i).name().toLowerCase()).append(ascending.get(i) ? " asc" : " desc");
+    }
+    return sb.toString();
+  }
+}
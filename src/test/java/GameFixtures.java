@@ -0,0 +1,29 @@
+import student.BoardGame;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Generated board games shared by the tests that need larger collections.
+ */
+final class GameFixtures {
+
+  private GameFixtures() {
+  }
+
+  /**
+   * Makes games named "Game 0" to "Game count-1", with ids 0 to count-1 and
+   * other columns cycling with the id: players 1-4 to 4-6, ratings 0.0 to 9.5.
+   *
+   * @param count the number of games
+   * @return a new, modifiable set of the games
+   */
+  static Set<BoardGame> games(int count) {
+    Set<BoardGame> games = new HashSet<>();
+    for (int i = 0; i < count; i++) {
+      games.add(new BoardGame("Game " + i, i, 1 + i % 4, 4 + i % 3, 15 * (i % 8), 120,
+          i % 5, i % 100, (i % 20) / 2.0, 1990 + i % 30));
+    }
+    return games;
+  }
+}
@@ -0,0 +1,133 @@
+import org.junit.jupiter.api.Test;
+import student.AsyncPlanner;
+import student.BoardGame;
+import student.GameCatalog;
+import student.GameData;
+import student.GameList;
+import student.Planner;
+import student.PlannerExecutor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+
+/**
+ * JUnit test for the AsyncPlanner and PlannerExecutor classes.
+ */
+public class TestAsyncPlanner {
+
+  @Test
+  public void testMatchesPlanner() {
+    GameCatalog catalog = new GameCatalog(GameFixtures.games(300));
+    Planner expected = new Planner(catalog);
+    try (PlannerExecutor executor = new PlannerExecutor(2)) {
+      AsyncPlanner planner = new AsyncPlanner(new Planner(catalog), new GameList(catalog),
+          executor);
+
+      assertEquals(expected.filter("minplayers<=2").collect(Collectors.toList()),
+          planner.filter("minplayers<=2").join());
+      assertEquals(expected.filter("rating>4", GameData.YEAR, false)
+          .collect(Collectors.toList()),
+          planner.filter("rating>4", GameData.YEAR, false).join());
+      expected.reset();
+      planner.reset().join();
+      assertEquals(expected.filter("", GameData.RATING).collect(Collectors.toList()),
+          planner.filter("", GameData.RATING).join());
+    }
+  }
+
+  @Test
+  public void testCallsTakeEffectInOrder() {
+    GameCatalog catalog = new GameCatalog(GameFixtures.games(300));
+    try (PlannerExecutor executor = new PlannerExecutor(4)) {
+      AsyncPlanner planner = new AsyncPlanner(new Planner(catalog), new GameList(catalog),
+          executor);
+
+      planner.filter("minplayers==1");
+      planner.filter("maxplayers==4");
+      CompletableFuture<List<BoardGame>> narrowed = planner.filter("year>=2010");
+      planner.reset();
+      CompletableFuture<List<BoardGame>> all = planner.filter("");
+      planner.filter("id<5");
+      planner.addToList("1-3");
+      CompletableFuture<List<String>> names = planner.getGameNames();
+
+      for (BoardGame game : narrowed.join()) {
+        assertEquals(1, game.getMinPlayers());
+        assertEquals(4, game.getMaxPlayers());
+        assertTrue(game.getYearPublished() >= 2010);
+      }
+      assertEquals(300, all.join().size());
+      assertEquals(Set.of("Game 0", "Game 1", "Game 2"), new HashSet<>(names.join()));
+    }
+  }
+
+  @Test
+  public void testConcurrentSessionsShareQueries() {
+    GameCatalog catalog = new GameCatalog(GameFixtures.games(2000));
+    List<BoardGame> expected = new Planner(catalog).filter("rating>=5")
+        .filter(game -> game.getMaxPlayers() >= 5).collect(Collectors.toList());
+    try (PlannerExecutor executor = new PlannerExecutor(3)) {
+      List<CompletableFuture<List<BoardGame>>> results = new ArrayList<>();
+      for (int i = 0; i < 200; i++) {
+        AsyncPlanner planner = new AsyncPlanner(new Planner(catalog), new GameList(catalog),
+            executor);
+        planner.filter("rating>=5");
+        results.add(planner.filter("maxplayers>=5"));
+      }
+      for (CompletableFuture<List<BoardGame>> result : results) {
+        assertEquals(expected, result.join());
+      }
+    }
+  }
+
+  @Test
+  public void testQueuedQueriesDoNotHoldThreads() {
+    GameCatalog catalog = new GameCatalog(GameFixtures.games(2000));
+    long before = plannerThreads();
+    try (PlannerExecutor executor = new PlannerExecutor(2)) {
+      List<CompletableFuture<List<BoardGame>>> results = new ArrayList<>();
+      for (int i = 0; i < 100; i++) {
+        AsyncPlanner planner = new AsyncPlanner(new Planner(catalog), new GameList(catalog),
+            executor);
+        results.add(planner.filter("id>=" + i, GameData.RATING, false));
+      }
+      // virtual threads are unnamed, so this only counts the Java 17 pool
+      assertTrue(plannerThreads() - before <= 2);
+      for (int i = 0; i < results.size(); i++) {
+        assertEquals(2000 - i, results.get(i).join().size());
+      }
+    }
+  }
+
+  private static long plannerThreads() {
+    return Thread.getAllStackTraces().keySet().stream()
+        .filter(thread -> thread.getName().equals("planner-task")).count();
+  }
+
+  @Test
+  public void testFailedCallDoesNotBlockLaterOnes() {
+    GameCatalog catalog = new GameCatalog(GameFixtures.games(10));
+    try (PlannerExecutor executor = new PlannerExecutor(1)) {
+      AsyncPlanner planner = new AsyncPlanner(new Planner(catalog), new GameList(catalog),
+          executor);
+
+      CompletableFuture<Void> failed = planner.removeFromList("");
+      assertThrows(ExecutionException.class, failed::get);
+      assertEquals(10, planner.filter("").join().size());
+    }
+  }
+
+  @Test
+  public void testInvalidConcurrency() {
+    assertThrows(IllegalArgumentException.class, () -> new PlannerExecutor(0));
+  }
+}
@@ -0,0 +1,81 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import student.BitsetGameList;
+import student.BoardGame;
+import student.GameCatalog;
+import student.GameNotFoundException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+/**
+ * JUnit test for the BitsetGameList class.
+ */
+public class TestBitsetGameList {
+
+  BoardGame go = new BoardGame("Go", 1, 2, 5, 30, 30, 8.0, 100, 7.5, 2000);
+  BoardGame chess = new BoardGame("chess", 2, 2, 2, 60, 120, 9.0, 50, 8.0, 1500);
+  BoardGame catan = new BoardGame("Catan", 3, 3, 4, 60, 90, 2.3, 400, 7.1, 1995);
+  BoardGame azul = new BoardGame("Azul", 4, 2, 4, 30, 45, 1.8, 80, 7.8, 2017);
+  BoardGame other = new BoardGame("Other", 5, 2, 4, 30, 45, 1.8, 80, 7.8, 2017);
+  List<BoardGame> shown = List.of(go, chess, catan, azul);
+
+  private GameCatalog catalog;
+  private BitsetGameList list;
+
+  @BeforeEach
+  public void setup() {
+    catalog = new GameCatalog(shown);
+    list = new BitsetGameList(catalog);
+  }
+
+  @Test
+  public void testAddAndRemove() {
+    list.addToList("2-3,azul", shown.stream());
+    assertEquals(List.of("Azul", "Catan", "chess"), list.getGameNames());
+    assertEquals(3, list.count());
+    assertTrue(list.contains(catan));
+    assertFalse(list.contains(go));
+
+    list.removeFromList("1,chess");
+    assertEquals(List.of("Catan"), list.getGameNames());
+
+    list.addToList("all", shown.stream());
+    list.removeFromList("all");
+    assertEquals(0, list.count());
+  }
+
+  @Test
+  public void testInvalidSelectionChangesNothing() {
+    list.addToList("go", shown.stream());
+    assertThrows(IllegalArgumentException.class, () -> list.addToList("1,9", shown.stream()));
+    GameNotFoundException e = assertThrows(GameNotFoundException.class,
+        () -> list.addToList("chess,gox", shown.stream()));
+    assertTrue(e.getSuggestions().contains("Go"));
+    assertThrows(IllegalArgumentException.class, () -> list.removeFromList("2"));
+    assertThrows(IllegalArgumentException.class,
+        () -> list.addToList("all", List.of(go, other).stream()));
+    assertEquals(List.of("Go"), list.getGameNames());
+  }
+
+  @Test
+  public void testSetAlgebra() {
+    BitsetGameList mine = new BitsetGameList(catalog);
+    BitsetGameList theirs = new BitsetGameList(catalog);
+    mine.addToList("go,chess,catan", shown.stream());
+    theirs.addToList("catan,azul,go", shown.stream());
+
+    assertEquals(List.of("Azul", "Catan", "chess", "Go"),
+        mine.union(theirs).getGameNames());
+    assertEquals(List.of("Catan", "Go"), mine.intersection(theirs).getGameNames());
+    assertEquals(List.of("chess"), mine.difference(theirs).getGameNames());
+    assertEquals(3, mine.count());
+
+    BitsetGameList elsewhere = new BitsetGameList(new GameCatalog(shown));
+    assertThrows(IllegalArgumentException.class, () -> mine.union(elsewhere));
+  }
+}
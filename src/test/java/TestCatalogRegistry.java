@@ -0,0 +1,84 @@
+import org.junit.jupiter.api.Test;
+import student.BoardGame;
+import student.CatalogRegistry;
+import student.CatalogVersion;
+import student.GameCatalog;
+import student.Planner;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * JUnit test for the CatalogRegistry class and Planner sessions over it.
+ */
+public class TestCatalogRegistry {
+
+  private static List<String> names(Stream<BoardGame> games) {
+    return games.map(BoardGame::getName).collect(Collectors.toList());
+  }
+
+  @Test
+  public void testPublishBumpsVersion() {
+    GameCatalog first = new GameCatalog(GameFixtures.games(10));
+    CatalogRegistry registry = new CatalogRegistry(first);
+    assertEquals(1, registry.current().getVersion());
+    assertSame(first, registry.getCatalog());
+
+    GameCatalog second = new GameCatalog(GameFixtures.games(20));
+    CatalogVersion published = registry.publish(second);
+    assertEquals(2, published.getVersion());
+    assertSame(second, registry.getCatalog());
+  }
+
+  @Test
+  public void testSessionReplaysFiltersOnNewCatalog() {
+    CatalogRegistry registry = new CatalogRegistry(new GameCatalog(GameFixtures.games(10)));
+    Planner planner = new Planner(registry);
+    planner.filter("minplayers==2");
+    Stream<BoardGame> before = planner.filter("rating>=4");
+    assertEquals(List.of("Game 9"), names(planner.filter("")));
+
+    registry.publish(new GameCatalog(GameFixtures.games(20)));
+    assertEquals(List.of("Game 13", "Game 17", "Game 9"), names(planner.filter("")));
+    assertEquals(2, planner.getFilterDepth());
+    assertEquals(List.of("Game 9"), names(before)); // made before the swap
+
+    assertTrue(planner.undo());
+    assertEquals(5, planner.getFilteredGames().size());
+  }
+
+  @Test
+  public void testReloadInBackground() throws Exception {
+    CatalogRegistry registry = new CatalogRegistry(new GameCatalog(GameFixtures.games(10)));
+    Planner planner = new Planner(registry);
+    planner.filter("minplayers==1");
+
+    CatalogVersion loaded = registry.reload(() -> GameFixtures.games(40)).get();
+    assertEquals(2, loaded.getVersion());
+    assertEquals(10, planner.getFilteredGames().size());
+
+    loaded = registry.reload("/collection.csv").get();
+    assertEquals(3, loaded.getVersion());
+    assertTrue(loaded.getCatalog().size() > 0);
+  }
+
+  @Test
+  public void testFailedReloadKeepsCatalog() {
+    GameCatalog catalog = new GameCatalog(GameFixtures.games(10));
+    CatalogRegistry registry = new CatalogRegistry(catalog);
+
+    assertThrows(ExecutionException.class, () -> registry.reload(() -> {
+      throw new IllegalStateException("broken file");
+    }).get());
+    assertThrows(ExecutionException.class, () -> registry.reload("/missing.csv").get());
+    assertSame(catalog, registry.getCatalog());
+    assertEquals(1, registry.current().getVersion());
+  }
+}
@@ -0,0 +1,85 @@
+import org.junit.jupiter.api.Test;
+import student.FilterClause;
+import student.FilterParseException;
+import student.FilterParser;
+import student.GameData;
+import student.Operations;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+/**
+ * JUnit test for the FilterParser class.
+ */
+public class TestFilterParser {
+
+  @Test
+  public void testParseMultipleClauses() {
+    List<FilterClause> clauses = FilterParser.parse("minPlayers > 4, maxplayers<=6");
+
+    assertEquals(2, clauses.size());
+    assertEquals(GameData.MIN_PLAYERS, clauses.get(0).getColumn());
+    assertEquals(Operations.GREATER_THAN, clauses.get(0).getOperator());
+    assertEquals(4.0, clauses.get(0).getNumber());
+    assertEquals(GameData.MAX_PLAYERS, clauses.get(1).getColumn());
+    assertEquals(Operations.LESS_THAN_EQUALS, clauses.get(1).getOperator());
+    assertEquals(16, clauses.get(1).getPosition());
+  }
+
+  @Test
+  public void testParseKeepsInnerSpaces() {
+    List<FilterClause> clauses = FilterParser.parse("  name ~=  Go Fish  ");
+
+    assertEquals(1, clauses.size());
+    assertEquals("Go Fish", clauses.get(0).getValue());
+    assertEquals("go fish", clauses.get(0).getLowerValue());
+  }
+
+  @Test
+  public void testParseQuotedValue() {
+    List<FilterClause> clauses = FilterParser.parse("name==\"a, b >= \\\"c\\\"\",year>2000");
+
+    assertEquals(2, clauses.size());
+    assertEquals("a, b >= \"c\"", clauses.get(0).getValue());
+    assertEquals(FilterParser.parse(clauses.get(0).toString()).get(0).getValue(),
+        clauses.get(0).getValue());
+  }
+
+  @Test
+  public void testParseEmptyFilter() {
+    assertTrue(FilterParser.parse("").isEmpty());
+    assertTrue(FilterParser.parse(" , ").isEmpty());
+  }
+
+  @Test
+  public void testParseErrorPositions() {
+    assertEquals(5, assertThrows(FilterParseException.class,
+        () -> FilterParser.parse("name ## Go")).getPosition());
+    assertEquals(0, assertThrows(FilterParseException.class,
+        () -> FilterParser.parse("invalidColumn == Go")).getPosition());
+    assertEquals(19, assertThrows(FilterParseException.class,
+        () -> FilterParser.parse("minPlayers>4,year>=abc")).getPosition());
+    assertEquals(6, assertThrows(FilterParseException.class,
+        () -> FilterParser.parse("name==\"open")).getPosition());
+    assertEquals(4, assertThrows(FilterParseException.class,
+        () -> FilterParser.parse("rank~=4")).getPosition());
+  }
+
+  @Test
+  public void testParseFits() {
+    List<FilterClause> clauses = FilterParser.parse("players@=4, playtime @= 45, maxPlayers@=2");
+
+    assertEquals(3, clauses.size());
+    assertEquals(GameData.MIN_PLAYERS, clauses.get(0).getColumn());
+    assertEquals(Operations.FITS, clauses.get(0).getOperator());
+    assertEquals(GameData.MIN_TIME, clauses.get(1).getColumn());
+    assertEquals(GameData.MAX_PLAYERS, clauses.get(2).getColumn());
+    assertEquals(7, assertThrows(FilterParseException.class,
+        () -> FilterParser.parse("players>4")).getPosition());
+    assertEquals(4, assertThrows(FilterParseException.class,
+        () -> FilterParser.parse("year@=2000")).getPosition());
+  }
+}
@@ -0,0 +1,136 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import student.BoardGame;
+import student.ExportFormat;
+import student.GameExporter;
+import student.GameList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * JUnit test for the GameExporter class.
+ */
+public class TestGameExporter {
+
+  @TempDir
+  Path tempDir;
+
+  BoardGame go = new BoardGame("Go", 1, 2, 5, 30, 30, 8.0, 100, 7.5, 2000);
+  BoardGame quoted = new BoardGame("Say \"Hi\", Bob", 2, 2, 10, 20, 120, 3.0, 200, 6.5, 2001);
+
+  @Test
+  public void testCsv() throws IOException {
+    Path file = tempDir.resolve("games.csv");
+    assertEquals(2, GameExporter.export(Stream.of(go, quoted), file, ExportFormat.CSV));
+
+    assertEquals(List.of(
+        "objectname,objectid,average,avgweight,rank,minplayers,maxplayers,minplaytime,"
+            + "maxplaytime,yearpublished",
+        "Go,1,7.5,8.0,100,2,5,30,30,2000",
+        "\"Say \"\"Hi\"\", Bob\",2,6.5,3.0,200,2,10,20,120,2001"),
+        Files.readAllLines(file, StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void testJsonAndNdjson() throws IOException {
+    Path json = tempDir.resolve("games.json");
+    Path ndjson = tempDir.resolve("games.ndjson");
+    GameExporter.export(Stream.of(go, quoted), json, ExportFormat.JSON);
+    GameExporter.export(Stream.of(go, quoted), ndjson, ExportFormat.NDJSON);
+
+    String first = "{\"objectname\":\"Go\",\"objectid\":1,\"average\":7.5,\"avgweight\":8.0,"
+        + "\"rank\":100,\"minplayers\":2,\"maxplayers\":5,\"minplaytime\":30,"
+        + "\"maxplaytime\":30,\"yearpublished\":2000}";
+    List<String> ndjsonLines = Files.readAllLines(ndjson, StandardCharsets.UTF_8);
+    assertEquals(2, ndjsonLines.size());
+    assertEquals(first, ndjsonLines.get(0));
+    assertTrue(ndjsonLines.get(1).startsWith("{\"objectname\":\"Say \\\"Hi\\\", Bob\","));
+    assertEquals("[\n" + first + ",\n" + ndjsonLines.get(1) + "\n]\n",
+        Files.readString(json, StandardCharsets.UTF_8));
+
+    GameExporter.export(Stream.empty(), json, ExportFormat.JSON);
+    assertEquals("[]\n", Files.readString(json, StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void testLargeExportSpansBuffers() throws IOException {
+    List<BoardGame> many = new ArrayList<>();
+    for (int i = 0; i < 20000; i++) {
+      many.add(new BoardGame("Game \u00e9 " + i, i, 1, 4, 30, 60, 2.5, i, 7.25, 2010));
+    }
+    Path file = tempDir.resolve("many.ndjson");
+    assertEquals(20000, GameExporter.export(many.stream(), file, ExportFormat.NDJSON));
+
+    List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+    assertEquals(20000, lines.size());
+    assertTrue(lines.get(19999).startsWith("{\"objectname\":\"Game \u00e9 19999\""));
+  }
+
+  @Test
+  public void testFailedExportKeepsOldFile() throws IOException {
+    Path file = tempDir.resolve("list.csv");
+    Files.writeString(file, "old");
+    Stream<BoardGame> failing = Stream.of(go, quoted).map(game -> {
+      if (game == quoted) {
+        throw new IllegalStateException("source failed");
+      }
+      return game;
+    });
+
+    assertThrows(IllegalStateException.class,
+        () -> GameExporter.export(failing, file, ExportFormat.CSV));
+    assertEquals("old", Files.readString(file));
+    try (Stream<Path> files = Files.list(tempDir)) {
+      assertEquals(List.of(file), files.collect(Collectors.toList()));
+    }
+  }
+
+  @Test
+  public void testReplacingKeepsPermissions() throws IOException {
+    Path file = tempDir.resolve("list.txt");
+    Files.writeString(file, "old");
+    if (!Files.getFileStore(file).supportsFileAttributeView(PosixFileAttributeView.class)) {
+      return;
+    }
+    Set<PosixFilePermission> shared = PosixFilePermissions.fromString("rw-rw-r--");
+    Files.setPosixFilePermissions(file, shared);
+
+    new GameList().saveGame(file.toString());
+    assertEquals(shared, Files.getPosixFilePermissions(file));
+    GameExporter.export(Stream.of(go), file, ExportFormat.CSV);
+    assertEquals(shared, Files.getPosixFilePermissions(file));
+
+    // a new file is not restricted to its owner, as a temporary file would be
+    Path created = tempDir.resolve("new.txt");
+    GameExporter.writeLines(Stream.of("Go"), created);
+    assertEquals(Files.getPosixFilePermissions(Files.createFile(tempDir.resolve("plain"))),
+        Files.getPosixFilePermissions(created));
+  }
+
+  @Test
+  public void testGameListExport() throws IOException {
+    GameList list = new GameList();
+    list.addToList("all", Stream.of(quoted, go));
+    Path file = tempDir.resolve("list.ndjson");
+    list.exportGames(file.toString(), ExportFormat.fromFilename(file.toString()));
+
+    List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+    assertTrue(lines.get(0).contains("\"objectname\":\"Go\""));
+    assertThrows(IllegalArgumentException.class, () -> ExportFormat.fromFilename("list.txt"));
+  }
+}
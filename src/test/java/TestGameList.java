@@ -9,8 +9,11 @@ import student.BoardGame;
 
 import java.io.IOException;
 import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Random;
 import java.util.Set;
 import java.util.stream.Stream;
 import java.nio.file.Path;
@@ -18,6 +21,10 @@ import student.Planner;
 import student.IPlanner;
 import student.GameData;
 import student.GameList;
+import student.GameNotFoundException;
+import student.GameCatalog;
+import student.CatalogRegistry;
+import student.ImportResult;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -83,7 +90,7 @@ public class TestGameList {
     Stream<BoardGame> gameStream = Stream.of(game1, game2);
     games.addToList("1-2", gameStream);
 
-    assertEquals(games.getGameNames(), List.of("20 days", "17 days"));
+    assertEquals(games.getGameNames(), List.of("17 days", "20 days"));
   }
 
   @Test
@@ -120,7 +127,75 @@ public class TestGameList {
     Stream<BoardGame> gameStream = Stream.of(game1, game2);
     games.addToList("all", gameStream);
 
-    assertEquals(games.getGameNames(), List.of("20 days", "17 days"));
+    assertEquals(games.getGameNames(), List.of("17 days", "20 days"));
+  }
+
+  @Test
+  public void testAddToListCompoundSelection() {
+    List<BoardGame> filtered = new ArrayList<>();
+    for (int i = 1; i <= 30; i++) {
+      filtered.add(new BoardGame(String.format("Game %02d", i), i, 1, 8, 70, 70, 9.0, 600, 9.0,
+          2005));
+    }
+    filtered.add(game1);
+    games.addToList(" 1-3, 8 ,12-13,17 DAYS,2", filtered.stream());
+
+    assertEquals(List.of("17 days", "Game 01", "Game 02", "Game 03", "Game 08", "Game 12",
+        "Game 13"), games.getGameNames());
+  }
+
+  @Test
+  public void testAddToListCompoundSelectionIsAllOrNothing() {
+    IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+        () -> games.addToList("1,1-3", Stream.of(game1, game2)));
+
+    assertEquals("Invalid range: 1-3", exception.getMessage());
+    assertEquals(0, games.count());
+    assertThrows(GameNotFoundException.class,
+        () -> games.addToList("1,random", Stream.of(game1, game2)));
+    assertThrows(IllegalArgumentException.class,
+        () -> games.addToList("1,,2", Stream.of(game1, game2)));
+    assertEquals(0, games.count());
+  }
+
+  @Test
+  public void testAddToListNameWithComma() {
+    BoardGame comma = new BoardGame("Catan, Seafarers", 9, 3, 4, 60, 90, 7.0, 50, 7.5, 1997);
+    games.addToList("catan, seafarers", Stream.of(game1, comma));
+
+    assertEquals(List.of("Catan, Seafarers"), games.getGameNames());
+    games.removeFromList("Catan, Seafarers");
+    assertEquals(0, games.count());
+  }
+
+  @Test
+  public void testDuplicateNamesResolveToLowestId() {
+    BoardGame reprint = new BoardGame("17 Days", 3, 1, 8, 70, 70, 9.0, 600, 9.0, 2015);
+    games.addToList("17  days", Stream.of(reprint, game2, game1));
+    assertEquals(List.of("17 Days"), games.getGameNames());
+
+    Planner planner = new Planner(Set.of(reprint, game1, game2));
+    GameList fromView = new GameList(new GameCatalog(Set.of(reprint, game1, game2)));
+    planner.filter("", GameData.YEAR, false);
+    fromView.addToList("17 DAYS", planner.getLastResult());
+    fromView.addToList("17 days", Stream.of(game1, game2));
+    assertEquals(List.of("17 Days", "17 days"), fromView.getGameNames());
+    fromView.removeFromList("17 days");
+    assertEquals(List.of("17 days"), fromView.getGameNames());
+  }
+
+  @Test
+  public void testViewNamesFromNewerCatalog() {
+    GameCatalog original = new GameCatalog(Set.of(game1, game2));
+    CatalogRegistry registry = new CatalogRegistry(original);
+    Planner planner = new Planner(registry);
+    GameList list = new GameList(original);
+
+    BoardGame brandNew = new BoardGame("Brand New", 7, 2, 4, 30, 60, 2.0, 1, 8.0, 2026);
+    registry.publish(new GameCatalog(Set.of(game1, game2, brandNew)));
+    planner.filter("name~=brand");
+    list.addToList("brand new", planner.getLastResult());
+    assertEquals(List.of("Brand New"), list.getGameNames());
   }
 
   @Test
@@ -133,6 +208,16 @@ public class TestGameList {
     assertEquals("Game not found: random", exception.getMessage());
   }
 
+  @Test
+  public void testGetNamesIgnoresCaseAndInsertionOrder() {
+    BoardGame alpha = new BoardGame("alpha", 3, 1, 8, 70, 70, 9.0, 600, 9.0, 2005);
+    BoardGame beta = new BoardGame("Beta", 1, 1, 8, 70, 70, 9.0, 600, 9.0, 2005);
+    BoardGame gamma = new BoardGame("GAMMA", 2, 1, 8, 70, 70, 9.0, 600, 9.0, 2005);
+    games.addToList("all", Stream.of(gamma, beta, alpha));
+
+    assertEquals(List.of("alpha", "Beta", "GAMMA"), games.getGameNames());
+  }
+
   /**
    * Test the removeFromList method
    *
@@ -152,7 +237,7 @@ public class TestGameList {
     games.addToList("all", gameStream);
     games.removeFromList("2");
 
-    assertEquals(games.getGameNames(), List.of("20 days"));
+    assertEquals(games.getGameNames(), List.of("17 days"));
   }
 
   @Test
@@ -164,6 +249,40 @@ public class TestGameList {
     assertEquals(games.getGameNames(), List.of());
   }
 
+  @Test
+  public void testRemoveFromListMiddleRange() {
+    List<BoardGame> many = new ArrayList<>();
+    for (int i = 0; i < 500; i++) {
+      many.add(new BoardGame(String.format("Game %03d", i), i, 1, 8, 70, 70, 9.0, 600, 9.0,
+          2005));
+    }
+    Collections.shuffle(many, new Random(5));
+    games.addToList("all", many.stream());
+    games.removeFromList("101-400");
+
+    List<String> names = games.getGameNames();
+    assertEquals(200, names.size());
+    assertEquals("Game 099", names.get(99));
+    assertEquals("Game 400", names.get(100));
+    games.removeFromList("101");
+    assertEquals("Game 401", games.getGameNames().get(100));
+  }
+
+  @Test
+  public void testRemoveFromListCompoundSelection() {
+    games.addToList("all", Stream.of(game1, game2,
+        new BoardGame("Azul", 8, 2, 4, 30, 45, 7.0, 20, 7.8, 2017),
+        new BoardGame("Catan", 9, 3, 4, 60, 90, 7.0, 50, 7.5, 1995)));
+    // indexes refer to the list before anything is removed
+    games.removeFromList("1,3-4");
+
+    assertEquals(List.of("20 days"), games.getGameNames());
+    assertThrows(IllegalArgumentException.class, () -> games.removeFromList("20 days,2"));
+    assertEquals(1, games.count());
+    games.removeFromList("20 days,1");
+    assertEquals(0, games.count());
+  }
+
   @Test
   public void testRemoveFromListAll() {
     Stream<BoardGame> gameStream = Stream.of(game1, game2);
@@ -206,6 +325,42 @@ public class TestGameList {
     assertEquals("Invalid selection: 100", exception.getMessage());
   }
 
+  @Test
+  public void testRemoveFromListSuggestsCorrection() {
+    Stream<BoardGame> gameStream = Stream.of(game1, game2);
+    games.addToList("all", gameStream);
+
+    GameNotFoundException exception = assertThrows(GameNotFoundException.class,
+        () -> games.removeFromList("17 dayz"));
+
+    assertEquals("Game not found: 17 dayz", exception.getMessage());
+    assertEquals(List.of("17 days"), exception.getSuggestions());
+  }
+
+  @Test
+  public void testRemovedNameCanBeAddedBack() {
+    games.addToList("all", Stream.of(game1, game2));
+    games.removeFromList("17 days");
+
+    GameNotFoundException exception = assertThrows(GameNotFoundException.class,
+        () -> games.removeFromList("17 days"));
+    assertEquals(List.of(), exception.getSuggestions());
+
+    games.addToList("17 days", Stream.of(game1, game2));
+    games.removeFromList("17  DAYS");
+    assertEquals(List.of("20 days"), games.getGameNames());
+  }
+
+  @Test
+  public void testAddToListSuggestsCorrection() {
+    Stream<BoardGame> gameStream = Stream.of(game1, game2);
+
+    GameNotFoundException exception = assertThrows(GameNotFoundException.class,
+        () -> games.addToList("20 dys", gameStream));
+
+    assertEquals(List.of("20 days"), exception.getSuggestions());
+  }
+
   /**
    * Test the count() method
    */
@@ -234,6 +389,48 @@ public class TestGameList {
     assertEquals(expectedLines, actualLines);
   }
 
+  /**
+   * Test the loadGame() method
+   */
+  @Test
+  public void testLoadGameRoundTrip() throws IOException {
+    BoardGame go = new BoardGame("Go", 1, 2, 5, 30, 30, 8.0, 100, 7.5, 2000);
+    GameCatalog catalog = new GameCatalog(Set.of(game1, game2, go));
+    GameList saved = new GameList(catalog);
+    saved.addToList("all", Stream.of(game1, game2, go));
+    String file = tempDir.resolve("saved.txt").toString();
+    saved.saveGame(file);
+
+    GameList loaded = new GameList(catalog);
+    ImportResult result = loaded.loadGame(file);
+
+    assertTrue(result.isComplete());
+    assertEquals(3, result.getAdded());
+    assertEquals(saved.getGameNames(), loaded.getGameNames());
+  }
+
+  @Test
+  public void testLoadGameReportsUnresolved() throws IOException {
+    GameCatalog catalog = new GameCatalog(Set.of(game1, game2));
+    Path file = tempDir.resolve("saved.txt");
+    Files.write(file, List.of("  17 DAYS ", "", "Missing Game", "6", "20 days", "999"));
+
+    GameList loaded = new GameList(catalog);
+    loaded.addToList("all", Stream.of(game2));
+    ImportResult result = loaded.loadGame(file.toString());
+
+    // "6" is the id both games share; the first by name is taken
+    assertEquals(List.of("Missing Game", "999"), result.getUnresolved());
+    assertEquals(3, result.getResolved());
+    assertEquals(1, result.getAdded());
+    assertEquals(List.of("17 days", "20 days"), loaded.getGameNames());
+  }
+
+  @Test
+  public void testLoadGameNeedsCatalog() {
+    assertThrows(IllegalStateException.class, () -> games.loadGame("anything.txt"));
+  }
+
   // Helper method to read file contents
   private List<String> readLinesFromFile(String filename) throws IOException {
     List<String> lines = new java.util.ArrayList<>();
@@ -0,0 +1,104 @@
+import org.junit.jupiter.api.Test;
+import student.BoardGame;
+import student.Planner;
+import student.ResultPage;
+import student.SortSpec;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * JUnit test for the GamePager class, through Planner.page.
+ */
+public class TestGamePager {
+
+  private static Set<BoardGame> games(int count, long seed) {
+    Random random = new Random(seed);
+    Set<BoardGame> games = new HashSet<>();
+    for (int i = 0; i < count; i++) {
+      games.add(new BoardGame("Game " + random.nextInt(count / 2), i, 1 + random.nextInt(4),
+          4 + random.nextInt(4), 15 * random.nextInt(8), 120, random.nextInt(5),
+          random.nextInt(100), Math.round(random.nextDouble() * 20) / 2.0,
+          1990 + random.nextInt(30)));
+    }
+    return games;
+  }
+
+  private static List<BoardGame> allPages(Planner planner, SortSpec sortOn, int pageSize) {
+    List<BoardGame> games = new ArrayList<>();
+    String cursor = null;
+    do {
+      ResultPage page = planner.page(sortOn, pageSize, cursor);
+      assertTrue(page.size() <= pageSize);
+      games.addAll(page.getGames());
+      cursor = page.getNextCursor();
+    } while (cursor != null);
+    return games;
+  }
+
+  @Test
+  public void testPagesMatchSortedResult() {
+    Planner planner = new Planner(games(500, 37));
+    planner.filter("minplayers<=2");
+
+    for (String spec : List.of("rating desc, name", "name desc", "year, minplaytime desc")) {
+      SortSpec sortOn = SortSpec.parse(spec);
+      List<BoardGame> sorted = planner.filter("", sortOn).collect(Collectors.toList());
+      assertEquals(sorted, allPages(planner, sortOn, 7), spec);
+      assertEquals(sorted, allPages(planner, sortOn, sorted.size()), spec);
+    }
+  }
+
+  @Test
+  public void testLastPageHasNoCursor() {
+    Planner planner = new Planner(games(20, 1));
+    SortSpec sortOn = SortSpec.parse("id");
+
+    ResultPage first = planner.page(sortOn, 15, null);
+    assertEquals(15, first.size());
+    assertTrue(first.hasNext());
+
+    ResultPage second = planner.page(sortOn, 15, first.getNextCursor());
+    assertEquals(5, second.size());
+    assertFalse(second.hasNext());
+    assertNull(second.getNextCursor());
+    assertEquals(19, second.getGames().get(4).getId());
+  }
+
+  @Test
+  public void testCursorSurvivesFilterChange() {
+    Planner planner = new Planner(games(100, 2));
+    SortSpec sortOn = SortSpec.parse("id desc");
+
+    ResultPage first = planner.page(sortOn, 10, null);
+    assertEquals(99, first.getGames().get(0).getId());
+    planner.filter("id<50");
+    ResultPage next = planner.page(sortOn, 10, first.getNextCursor());
+    assertEquals(49, next.getGames().get(0).getId());
+  }
+
+  @Test
+  public void testInvalidPageRequests() {
+    Planner planner = new Planner(games(20, 3));
+    String cursor = planner.page(SortSpec.parse("rating"), 5, null).getNextCursor();
+
+    assertThrows(IllegalArgumentException.class,
+        () -> planner.page(SortSpec.parse("rating"), 0, null));
+    assertThrows(IllegalArgumentException.class,
+        () -> planner.page(SortSpec.parse("rating desc"), 5, cursor));
+    assertThrows(IllegalArgumentException.class,
+        () -> planner.page(SortSpec.parse("rating"), 5, "not a cursor"));
+    assertThrows(IllegalArgumentException.class,
+        () -> planner.page(SortSpec.parse("rating"), 5, cursor.substring(0, 8)));
+  }
+}
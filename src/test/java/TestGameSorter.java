@@ -0,0 +1,155 @@
+import org.junit.jupiter.api.Test;
+import student.BoardGame;
+import student.GameCatalog;
+import student.GameData;
+import student.GameSorter;
+import student.SortSpec;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * JUnit test for the GameSorter class.
+ */
+public class TestGameSorter {
+
+  private static List<BoardGame> games(int count, long seed) {
+    Random random = new Random(seed);
+    List<BoardGame> games = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      // few distinct values, so ties are common
+      games.add(new BoardGame("Game " + random.nextInt(count), random.nextInt(count * 10),
+          random.nextInt(5), random.nextInt(12), random.nextInt(4) * 30,
+          random.nextInt(100_000), Math.round(random.nextDouble() * 50) / 10.0,
+          random.nextInt(20), random.nextInt(3) == 0 ? 0 : random.nextDouble() * 10,
+          random.nextInt(3) == 0 ? -500 + random.nextInt(100) : 1900 + random.nextInt(125)));
+    }
+    return games;
+  }
+
+  private static List<BoardGame> list(Stream<BoardGame> games) {
+    return games.collect(Collectors.toList());
+  }
+
+  private static BitSet sample(GameCatalog catalog, int outOf, long seed) {
+    BitSet rows = new BitSet();
+    Random random = new Random(seed);
+    for (int i = 0; i < catalog.size(); i++) {
+      if (random.nextInt(outOf) == 0) {
+        rows.set(i);
+      }
+    }
+    return rows;
+  }
+
+  private static void assertMatchesComparatorSort(GameCatalog catalog, BitSet rows) {
+    GameSorter sorter = new GameSorter();
+    for (GameData column : GameData.values()) {
+      for (boolean ascending : new boolean[] {true, false}) {
+        List<BoardGame> expected = list(sorter.sort(catalog.stream(rows), column, ascending));
+        List<BoardGame> actual = list(sorter.sort(catalog, rows, column, ascending));
+        assertEquals(expected, actual, column + (ascending ? " asc" : " desc"));
+      }
+    }
+  }
+
+  @Test
+  public void testPresortedWalkMatchesComparatorSort() {
+    GameCatalog catalog = new GameCatalog(games(3000, 34));
+    assertMatchesComparatorSort(catalog, sample(catalog, 2, 34));
+    assertMatchesComparatorSort(catalog, catalog.all());
+  }
+
+  @Test
+  public void testRadixSortMatchesComparatorSort() {
+    GameCatalog catalog = new GameCatalog(games(3000, 35));
+    assertMatchesComparatorSort(catalog, sample(catalog, 100, 35));
+  }
+
+  @Test
+  public void testSortEmptyAndSingle() {
+    GameSorter sorter = new GameSorter();
+    GameCatalog catalog = new GameCatalog(games(1, 7));
+
+    assertEquals(List.of(), list(sorter.sort(catalog, new BitSet(), GameData.RATING, true)));
+    assertEquals(List.of(catalog.get(0)),
+        list(sorter.sort(catalog, catalog.all(), GameData.RANK, false)));
+
+    GameCatalog empty = new GameCatalog(List.of());
+    for (boolean ascending : new boolean[] {true, false}) {
+      assertEquals(List.of(), list(sorter.sort(empty, empty.all(), GameData.NAME, ascending)));
+    }
+  }
+
+  private static double value(BoardGame game, GameData column) {
+    switch (column) {
+      case ID:
+        return game.getId();
+      case RATING:
+        return game.getRating();
+      case DIFFICULTY:
+        return game.getDifficulty();
+      case RANK:
+        return game.getRank();
+      case MIN_PLAYERS:
+        return game.getMinPlayers();
+      case MAX_PLAYERS:
+        return game.getMaxPlayers();
+      case MIN_TIME:
+        return game.getMinPlayTime();
+      case MAX_TIME:
+        return game.getMaxPlayTime();
+      default:
+        return game.getYearPublished();
+    }
+  }
+
+  private static Comparator<BoardGame> comparator(SortSpec spec) {
+    Comparator<BoardGame> comparator = null;
+    for (int k = 0; k < spec.size(); k++) {
+      GameData column = spec.getColumn(k);
+      Comparator<BoardGame> key = column == GameData.NAME
+          ? Comparator.comparing(game -> game.getName().toLowerCase())
+          : Comparator.comparingDouble(game -> value(game, column));
+      key = spec.isAscending(k) ? key : key.reversed();
+      comparator = comparator == null ? key : comparator.thenComparing(key);
+    }
+    return comparator.thenComparing(BoardGame::getId).thenComparing(BoardGame::getName);
+  }
+
+  @Test
+  public void testCompoundSortMatchesChainedComparator() {
+    GameSorter sorter = new GameSorter();
+    GameCatalog catalog = new GameCatalog(games(3000, 36));
+    BitSet rows = sample(catalog, 3, 36);
+
+    List<SortSpec> specs = List.of(
+        SortSpec.parse("min_players desc, name asc"),
+        SortSpec.parse("minplaytime, rating desc"),
+        SortSpec.parse("year desc, difficulty asc, maxplayers desc"),
+        SortSpec.parse("name desc, rank"));
+    for (SortSpec spec : specs) {
+      List<BoardGame> expected = list(catalog.stream(rows).sorted(comparator(spec)));
+      assertEquals(expected, list(sorter.sort(catalog, rows, spec)), spec.toString());
+    }
+  }
+
+  @Test
+  public void testCompoundSortWithTooManyBitsForOneKey() {
+    GameSorter sorter = new GameSorter();
+    GameCatalog catalog = new GameCatalog(games(3000, 37));
+    BitSet rows = sample(catalog, 2, 37);
+
+    SortSpec spec = SortSpec.parse("year, rating desc, name, max_time desc, id desc, rank, "
+        + "difficulty, min_time desc, max_players, min_players desc");
+    List<BoardGame> expected = list(catalog.stream(rows).sorted(comparator(spec)));
+    assertEquals(expected, list(sorter.sort(catalog, rows, spec)));
+  }
+}
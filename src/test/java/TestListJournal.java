@@ -0,0 +1,137 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import student.BoardGame;
+import student.GameList;
+import student.ListJournal;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JUnit test for the ListJournal class and durable GameLists.
+ */
+public class TestListJournal {
+
+  @TempDir
+  Path tempDir;
+
+  List<BoardGame> games = List.of(
+      new BoardGame("Go", 1, 2, 5, 30, 30, 8.0, 100, 7.5, 2000),
+      new BoardGame("Chess", 2, 2, 2, 60, 120, 9.0, 50, 8.0, 1500),
+      new BoardGame("Catan", 3, 3, 4, 60, 90, 2.3, 400, 7.1, 1995),
+      new BoardGame("Azul", 4, 2, 4, 30, 45, 1.8, 80, 7.8, 2017));
+
+  @Test
+  public void testRoundTrip() throws IOException {
+    try (ListJournal journal = ListJournal.open(tempDir)) {
+      GameList list = new GameList(null, journal);
+      list.addToList("all", games.stream());
+      list.removeFromList("chess");
+      list.removeFromList("1");
+    }
+    try (ListJournal journal = ListJournal.open(tempDir)) {
+      assertEquals(List.of("Catan", "Go"), new GameList(null, journal).getGameNames());
+    }
+  }
+
+  @Test
+  public void testClearIsDurable() throws IOException {
+    try (ListJournal journal = ListJournal.open(tempDir)) {
+      GameList list = new GameList(null, journal);
+      list.addToList("1-3", games.stream());
+      list.clear();
+      list.addToList("azul", games.stream());
+    }
+    try (ListJournal journal = ListJournal.open(tempDir)) {
+      assertEquals(List.of("Azul"), new GameList(null, journal).getGameNames());
+    }
+  }
+
+  @Test
+  public void testTornTailIsDropped() throws IOException {
+    try (ListJournal journal = ListJournal.open(tempDir)) {
+      new GameList(null, journal).addToList("go,catan", games.stream());
+    }
+    // A record cut short by a crash: a length with only part of its payload
+    Files.write(tempDir.resolve("list.journal"), new byte[] {0, 0, 0, 40, 1, 7, 7},
+        StandardOpenOption.APPEND);
+    try (ListJournal journal = ListJournal.open(tempDir)) {
+      GameList list = new GameList(null, journal);
+      assertEquals(List.of("Catan", "Go"), list.getGameNames());
+      list.addToList("azul", games.stream());
+    }
+    try (ListJournal journal = ListJournal.open(tempDir)) {
+      assertEquals(List.of("Azul", "Catan", "Go"), new GameList(null, journal).getGameNames());
+    }
+  }
+
+  @Test
+  public void testFailedCommitIsReported() throws IOException {
+    ListJournal journal = ListJournal.open(tempDir);
+    GameList list = new GameList(null, journal);
+    list.addToList("go", games.stream());
+    journal.close();
+
+    // the file is gone from under the list: the change is not durable, and
+    // later ones are refused rather than written behind it
+    assertThrows(UncheckedIOException.class, () -> list.addToList("azul", games.stream()));
+    assertThrows(UncheckedIOException.class, () -> list.removeFromList("go"));
+    try (ListJournal reopened = ListJournal.open(tempDir)) {
+      assertEquals(List.of("Go"), new GameList(null, reopened).getGameNames());
+    }
+  }
+
+  @Test
+  public void testCompaction() throws IOException {
+    List<BoardGame> many = new ArrayList<>();
+    for (int i = 0; i < 3000; i++) {
+      many.add(new BoardGame("Game " + i, 100 + i, 1, 4, 30, 60, 2.0, i, 6.0, 2000));
+    }
+    long journalSize;
+    try (ListJournal journal = ListJournal.open(tempDir)) {
+      GameList list = new GameList(null, journal);
+      list.addToList("all", many.stream());
+      list.removeFromList("1-1500");
+      list.addToList("all", games.stream());
+      journalSize = Files.size(tempDir.resolve("list.journal"));
+    }
+    assertTrue(Files.exists(tempDir.resolve("list.snapshot")));
+    assertTrue(journalSize < 1000, "journal restarted after compaction");
+    try (ListJournal journal = ListJournal.open(tempDir)) {
+      GameList list = new GameList(null, journal);
+      assertEquals(1504, list.count());
+      assertEquals("Azul", list.getGameNames().get(0));
+    }
+  }
+
+  @Test
+  public void testJournalNewerThanSnapshotIsRefused() throws IOException {
+    List<BoardGame> many = new ArrayList<>();
+    for (int i = 0; i < 3000; i++) {
+      many.add(new BoardGame("Game " + i, 100 + i, 1, 4, 30, 60, 2.0, i, 6.0, 2000));
+    }
+    try (ListJournal journal = ListJournal.open(tempDir)) {
+      GameList list = new GameList(null, journal);
+      list.addToList("all", many.stream());
+      list.removeFromList("1-1500");
+      list.addToList("go", games.stream());
+    }
+    Path journalFile = tempDir.resolve("list.journal");
+    byte[] written = Files.readAllBytes(journalFile);
+
+    // the journal holds records past a snapshot that is now gone
+    Files.delete(tempDir.resolve("list.snapshot"));
+    assertThrows(IOException.class, () -> ListJournal.open(tempDir));
+    assertArrayEquals(written, Files.readAllBytes(journalFile));
+  }
+}
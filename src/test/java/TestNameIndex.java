@@ -0,0 +1,73 @@
+import org.junit.jupiter.api.Test;
+import student.BoardGame;
+import student.NameIndex;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * JUnit test for the NameIndex class.
+ */
+public class TestNameIndex {
+
+  private final BoardGame catan = new BoardGame("Catan", 1, 3, 4, 60, 90, 2.3, 400, 7.1, 1995);
+  private final BoardGame carcassonne = new BoardGame("Carcassonne", 2, 2, 5, 30, 45, 1.9, 200, 7.4,
+      2000);
+  private final BoardGame chess = new BoardGame("Chess", 3, 2, 2, 10, 20, 3.7, 700, 7.0, 1475);
+  private final BoardGame goFish = new BoardGame("Go  Fish", 4, 2, 10, 20, 120, 3.0, 200, 6.5, 2001);
+
+  private List<String> names(List<BoardGame> games) {
+    return games.stream().map(BoardGame::getName).collect(Collectors.toList());
+  }
+
+  @Test
+  public void testNormalize() {
+    assertEquals("go fish", NameIndex.normalize("  Go \t FISH "));
+  }
+
+  @Test
+  public void testDuplicateNamesInIdOrder() {
+    BoardGame catanReprint = new BoardGame("CATAN", 9, 3, 4, 60, 90, 2.3, 400, 7.1, 2015);
+    BoardGame catanFirst = new BoardGame("catan", 0, 3, 4, 60, 90, 2.3, 400, 7.1, 1995);
+    NameIndex index = new NameIndex(List.of(catanReprint, catan, chess, catanFirst));
+
+    assertEquals(List.of(catanFirst, catan, catanReprint), index.find("Catan"));
+    index.remove(catanFirst);
+    assertEquals(List.of(catan, catanReprint), index.find("catan"));
+    index.add(catanFirst);
+    assertEquals(catanFirst, index.find("catan").get(0));
+    assertEquals(4, index.size());
+  }
+
+  @Test
+  public void testFindExact() {
+    NameIndex index = new NameIndex(List.of(catan, carcassonne, chess, goFish));
+
+    assertEquals(List.of(catan), index.find("CATAN"));
+    assertEquals(List.of(goFish), index.find("go fish"));
+    assertTrue(index.find("catn").isEmpty());
+  }
+
+  @Test
+  public void testNearestOrderedByDistance() {
+    NameIndex index = new NameIndex(List.of(catan, carcassonne, chess, goFish));
+
+    assertEquals(List.of("Catan"), names(index.nearest("catn", 1)));
+    assertEquals(List.of("Chess", "Catan"), names(index.nearest("chest", 4)));
+    assertEquals(List.of("Carcassonne"), names(index.suggest("carcasone")));
+  }
+
+  @Test
+  public void testRemoveKeepsOtherNamesReachable() {
+    NameIndex index = new NameIndex(List.of(catan, carcassonne, chess, goFish));
+    index.remove(catan);
+
+    assertEquals(3, index.size());
+    assertTrue(index.find("catan").isEmpty());
+    assertEquals(List.of(chess), index.find("chess"));
+    assertEquals(List.of(goFish), index.nearest("go fsh", 1));
+  }
+}
@@ -3,6 +3,9 @@ import org.junit.jupiter.api.Test;
 import student.BoardGame;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import java.util.HashSet;
 import java.util.List;
@@ -11,6 +14,18 @@ import java.util.stream.Collectors;
 import student.Planner;
 import student.IPlanner;
 import student.GameData;
+import student.ColumnStats;
+import student.FacetCounts;
+import student.GameCatalog;
+import student.GameList;
+import student.FilterParseException;
+import student.ResultView;
+import java.util.ArrayList;
+import java.util.SortedMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 /**
  * JUnit test for the Planner class.
@@ -56,17 +71,21 @@ public class TestPlanner {
   @Test
   public void testFilterInvalidOperator() {
     Planner planner = new Planner(games);
-    List<BoardGame> filtered = planner.filter("name ## Go").toList();
-    assertEquals(planner.getFilteredGames(), filtered.stream().collect(Collectors.toSet()),
-        "Invalid operator should return most recent filter");
+    planner.filter("minPlayers == 2");
+    Set<BoardGame> before = planner.getFilteredGames();
+    assertThrows(FilterParseException.class, () -> planner.filter("name ## Go"));
+    assertEquals(before, planner.getFilteredGames(),
+        "Invalid operator should leave the most recent filter");
   }
 
   @Test
   public void testFilterInvalidColumn() {
     Planner planner = new Planner(games);
-    List<BoardGame> filtered = planner.filter("invalidColumn == Go").toList();
-    assertEquals(planner.getFilteredGames(), filtered.stream().collect(Collectors.toSet()),
-        "Invalid column should return most recent filter");
+    planner.filter("minPlayers == 2");
+    Set<BoardGame> before = planner.getFilteredGames();
+    assertThrows(FilterParseException.class, () -> planner.filter("invalidColumn == Go"));
+    assertEquals(before, planner.getFilteredGames(),
+        "Invalid column should leave the most recent filter");
   }
 
   @Test
@@ -338,4 +357,178 @@ public class TestPlanner {
     assertEquals(games, planner.getFilteredGames());
   }
 
+
+  /**
+   * Test the undo() method
+   */
+  @Test
+  void testUndoLastClause() {
+    Planner planner = new Planner(games);
+    planner.filter("name ~= Go, minPlayers > 2");
+    assertEquals(2, planner.getFilterDepth());
+    assertEquals(1, planner.getFilteredGames().size());
+
+    assertTrue(planner.undo());
+    assertEquals(1, planner.getFilterDepth());
+    List<String> names = planner.filter("").map(BoardGame::getName).collect(Collectors.toList());
+    assertEquals(List.of("Go", "Go Fish", "golang", "GoRami"), names);
+
+    assertTrue(planner.undo());
+    assertEquals(games, planner.getFilteredGames());
+    assertFalse(planner.undo(), "Nothing left to undo");
+  }
+
+  /**
+   * Test the aggregate() and groupBy() methods
+   */
+  @Test
+  void testAggregateFilteredView() {
+    Planner planner = new Planner(games);
+    planner.filter("name ~= Go");
+    ColumnStats stats = planner.aggregate(GameData.RATING);
+
+    assertEquals(4, stats.getCount());
+    assertEquals(6.5, stats.getMin());
+    assertEquals(9.5, stats.getMax());
+    assertEquals(8.0, stats.getAverage());
+    assertEquals(8.0, stats.getMedian());
+    assertEquals(9.5, stats.getPercentile(100));
+  }
+
+  @Test
+  void testGroupByMinPlayers() {
+    Planner planner = new Planner(games);
+    SortedMap<Integer, ColumnStats> groups = planner.groupBy(GameData.MIN_PLAYERS, GameData.MAX_TIME);
+
+    assertEquals(List.of(1, 2, 6, 10), List.copyOf(groups.keySet()));
+    assertEquals(4, groups.get(2).getCount());
+    assertEquals(120.0, groups.get(2).getMax());
+    assertEquals(1000.0, groups.get(6).getMax());
+  }
+
+  /**
+   * Test the getFacets() method
+   */
+  @Test
+  void testFacetsFollowFilterAndUndo() {
+    Planner planner = new Planner(games);
+    FacetCounts all = planner.getFacets();
+    assertEquals(8, all.getTotal());
+    assertEquals(5, all.countSupportingPlayers(2));
+    assertEquals(3, all.countFitting(2, 60));
+
+    planner.filter("minPlayers == 2");
+    FacetCounts twoPlayer = planner.getFacets();
+    assertEquals(4, twoPlayer.getTotal());
+    assertEquals(3, twoPlayer.countFitting(2, 60));
+    assertEquals(3, twoPlayer.countWithinTime(90));
+    assertEquals(List.of(2000), List.copyOf(twoPlayer.getDecadeHistogram().keySet()));
+
+    planner.filter("rating > 9.6");
+    assertEquals(1, planner.getFacets().countFitting(2, 60));
+
+    planner.undo();
+    assertEquals(4, planner.getFacets().getTotal());
+    planner.reset();
+    assertEquals(all, planner.getFacets());
+  }
+
+  /**
+   * Test the fits (@=) operator
+   */
+  @Test
+  void testFitsMatchesRangeClauses() {
+    for (int players = 0; players <= 21; players++) {
+      Planner fits = new Planner(games);
+      Planner ranges = new Planner(games);
+      fits.filter("players @= " + players);
+      ranges.filter("minPlayers <= " + players + ", maxPlayers >= " + players);
+      assertEquals(ranges.getFilteredGames(), fits.getFilteredGames(), "players " + players);
+    }
+    for (int minutes = 0; minutes <= 1001; minutes += 7) {
+      Planner fits = new Planner(games);
+      Planner ranges = new Planner(games);
+      fits.filter("playtime @= " + minutes);
+      ranges.filter("minPlayTime <= " + minutes + ", maxPlayTime >= " + minutes);
+      assertEquals(ranges.getFilteredGames(), fits.getFilteredGames(), "minutes " + minutes);
+    }
+  }
+
+  @Test
+  void testFitsAppliesToCurrentFilter() {
+    IPlanner planner = new Planner(games);
+    planner.filter("name ~= go");
+    List<String> names = planner.filter("maxPlayers @= 6").map(BoardGame::getName)
+        .collect(Collectors.toList());
+
+    assertEquals(List.of("Go Fish", "golang", "GoRami"), names);
+  }
+
+
+  /**
+   * Test many Planner sessions sharing one catalog across threads
+   */
+  @Test
+  void testConcurrentSessionsShareCatalog() throws Exception {
+    GameCatalog catalog = new GameCatalog(games);
+    List<String> clauses = List.of("minplayers>=2", "name~=go", "rating>7", "maxplaytime<100",
+        "players@=6");
+
+    // what each combination of clauses gives in a session of its own
+    List<List<String>> expected = new ArrayList<>();
+    for (int mask = 0; mask < 1 << clauses.size(); mask++) {
+      expected.add(run(new Planner(catalog), clauses, mask));
+    }
+
+    ExecutorService pool = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<Boolean>> results = new ArrayList<>();
+      for (int i = 0; i < 2000; i++) {
+        int mask = (i * 7) % (1 << clauses.size());
+        results.add(pool.submit(
+            () -> run(new Planner(catalog), clauses, mask).equals(expected.get(mask))));
+      }
+      for (Future<Boolean> result : results) {
+        assertTrue(result.get());
+      }
+    } finally {
+      pool.shutdown();
+      assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+    }
+  }
+
+  @Test
+  public void testLastResultFollowsLastFilter() {
+    Planner planner = new Planner(games);
+    List<BoardGame> shown = planner.filter("minPlayers==2", GameData.RATING, false)
+        .collect(Collectors.toList());
+    ResultView view = planner.getLastResult();
+
+    assertEquals(shown, view);
+    assertSame(view, planner.getLastResult());
+    assertTrue(view.contains(shown.get(0)));
+
+    GameList list = new GameList();
+    list.addToList("2", view);
+    assertEquals(List.of(shown.get(1).getName()), list.getGameNames());
+
+    planner.filter("maxPlayers>5");
+    ResultView narrowed = planner.getLastResult();
+    assertNotSame(view, narrowed);
+    assertEquals(planner.filter("").collect(Collectors.toList()), narrowed);
+    for (BoardGame game : shown) {
+      assertEquals(game.getMaxPlayers() > 5, narrowed.contains(game));
+    }
+  }
+
+  private static List<String> run(Planner planner, List<String> clauses, int mask) {
+    for (int c = 0; c < clauses.size(); c++) {
+      if ((mask & (1 << c)) != 0) {
+        planner.filter(clauses.get(c));
+      }
+    }
+    planner.undo();
+    return planner.filter("", GameData.RATING, false).map(BoardGame::getName)
+        .collect(Collectors.toList());
+  }
 }
@@ -0,0 +1,119 @@
+import org.junit.jupiter.api.Test;
+import student.BoardGame;
+import student.GameData;
+import student.Planner;
+import student.QueryContext;
+import student.QueryTimeoutException;
+import student.SortSpec;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * JUnit test for query deadlines and cancellation, through Planner.filter.
+ */
+public class TestQueryContext {
+
+  @Test
+  public void testUnboundedMatchesFilter() {
+    Planner planner = new Planner(GameFixtures.games(3000));
+    Planner expected = new Planner(GameFixtures.games(3000));
+    SortSpec sortOn = SortSpec.parse("rating desc, name");
+
+    assertEquals(expected.filter("name~=1", sortOn).collect(Collectors.toList()),
+        planner.filter("name~=1", sortOn, QueryContext.unbounded())
+            .collect(Collectors.toList()));
+    assertEquals(1, planner.getFilterDepth());
+  }
+
+  @Test
+  public void testExpiredDeadlineLeavesStateUnchanged() {
+    Planner planner = new Planner(GameFixtures.games(3000));
+    planner.filter("minplayers==1");
+    QueryContext context = QueryContext.withTimeout(Duration.ZERO);
+    assertTrue(context.isExpired());
+
+    QueryTimeoutException e = assertThrows(QueryTimeoutException.class,
+        () -> planner.filter("name~=game", SortSpec.of(GameData.NAME, true), context));
+    assertFalse(e.isSortedPrefix());
+    assertEquals(1, planner.getFilterDepth());
+    assertEquals(750, planner.getFilteredGames().size());
+  }
+
+  @Test
+  public void testCancelStopsSortWithPartialResults() {
+    Planner planner = new Planner(GameFixtures.games(5000));
+    QueryContext context = QueryContext.unbounded();
+    context.cancel();
+
+    QueryTimeoutException e = assertThrows(QueryTimeoutException.class,
+        () -> planner.filter("", SortSpec.of(GameData.YEAR, false), context));
+    assertTrue(context.isCancelled());
+    assertEquals("Query cancelled", e.getMessage());
+    // an empty filter scans nothing, so the sort is what stops, before any
+    // game is sorted: the partial result is every filtered game
+    assertFalse(e.isSortedPrefix());
+    assertEquals(5000, e.getPartialResults().size());
+    assertEquals(0, planner.getFilterDepth());
+  }
+
+  /** Set by a test to be cancelled when the scan reaches a CancelingGame. */
+  private static volatile QueryContext toCancel;
+
+  /** A game that cancels toCancel once its name is read by a running filter. */
+  private static final class CancelingGame extends BoardGame {
+    private CancelingGame(String name, int id) {
+      super(name, id, 2, 4, 30, 60, 2.0, id, 7.0, 2000);
+    }
+
+    @Override
+    public String getName() {
+      QueryContext context = toCancel;
+      if (context != null) {
+        context.cancel();
+      }
+      return super.getName();
+    }
+  }
+
+  @Test
+  public void testPartialResultsMatchFilter() {
+    Set<BoardGame> games = GameFixtures.games(3000);
+    games.removeIf(game -> game.getId() == 1500);
+    games.add(new CancelingGame("Game 1500", 1500));
+    Planner planner = new Planner(games);
+    QueryContext context = QueryContext.unbounded();
+
+    // cancelled half way through the scan, and seen at the next check
+    toCancel = context;
+    QueryTimeoutException e;
+    try {
+      e = assertThrows(QueryTimeoutException.class,
+          () -> planner.filter("name~=1", SortSpec.of(GameData.ID, true), context));
+    } finally {
+      toCancel = null;
+    }
+    assertEquals(0, planner.getFilterDepth());
+    List<BoardGame> partial = e.getPartialResults();
+    assertFalse(partial.isEmpty());
+    assertTrue(partial.size() < planner.filter("name~=1").count());
+    for (BoardGame game : partial) {
+      assertTrue(game.getName().contains("1"));
+      // checks are made every 1024 games, so the scan stops at game 2048
+      assertTrue(game.getId() < 2048);
+    }
+  }
+
+  @Test
+  public void testNegativeTimeout() {
+    assertThrows(IllegalArgumentException.class,
+        () -> QueryContext.withTimeout(Duration.ofMillis(-1)));
+  }
+}
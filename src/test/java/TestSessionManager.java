@@ -0,0 +1,193 @@
+import org.junit.jupiter.api.Test;
+import student.BoardGame;
+import student.CatalogRegistry;
+import student.GameCatalog;
+import student.Session;
+import student.SessionManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * JUnit test for the SessionManager class.
+ */
+public class TestSessionManager {
+
+  /** A clock that only moves when told to. */
+  private static final class TestClock extends Clock {
+    private long millis = 0;
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return Instant.ofEpochMilli(millis);
+    }
+
+    private void advance(Duration duration) {
+      millis += duration.toMillis();
+    }
+  }
+
+  private static GameCatalog catalog() {
+    return new GameCatalog(GameFixtures.games(1000));
+  }
+
+  private static List<String> names(Stream<BoardGame> games) {
+    return games.map(BoardGame::getName).collect(Collectors.toList());
+  }
+
+  @Test
+  public void testOpenGetClose() {
+    SessionManager manager = new SessionManager(catalog(), 1 << 20, Duration.ofMinutes(30));
+    Session first = manager.open();
+    Session second = manager.open();
+
+    assertFalse(first.getId().equals(second.getId()));
+    assertSame(first, manager.get(first.getId()));
+    assertEquals(2, manager.getLiveCount());
+    assertTrue(manager.close(first.getId()));
+    assertFalse(manager.close(first.getId()));
+    assertThrows(IllegalArgumentException.class, () -> manager.get(first.getId()));
+  }
+
+  @Test
+  public void testIdleSessionIsSpilledAndRebuilt() {
+    TestClock clock = new TestClock();
+    SessionManager manager = new SessionManager(catalog(), 1 << 20, Duration.ofMinutes(30),
+        clock);
+    Session session = manager.open();
+    session.getPlanner().filter("minplayers==2");
+    session.getPlanner().filter("name~=\"game 1\"");
+    session.getPlanner().filter("rating>=7");
+    session.getGameList().addToList("1-3", session.getPlanner().filter(""));
+    List<String> filtered = names(session.getPlanner().filter(""));
+    List<String> listed = session.getGameList().getGameNames();
+    session.close();
+
+    clock.advance(Duration.ofMinutes(31));
+    manager.evict();
+    assertEquals(0, manager.getLiveCount());
+    assertEquals(1, manager.getSpilledCount());
+
+    Session rebuilt = manager.get(session.getId());
+    assertNotSame(session, rebuilt);
+    assertEquals(filtered, names(rebuilt.getPlanner().filter("")));
+    assertEquals(3, rebuilt.getPlanner().getFilterDepth());
+    assertEquals(listed.stream().sorted().collect(Collectors.toList()),
+        rebuilt.getGameList().getGameNames().stream().sorted().collect(Collectors.toList()));
+
+    rebuilt.getPlanner().undo();
+    assertEquals(names(session.getPlanner().filter("")).size(), filtered.size());
+    assertTrue(rebuilt.getPlanner().filter("").count() > filtered.size());
+  }
+
+  @Test
+  public void testMemoryBudgetSpillsLeastRecentlyUsed() {
+    TestClock clock = new TestClock();
+    SessionManager manager = new SessionManager(catalog(), 2000, Duration.ofHours(1), clock);
+    Session first = manager.open();
+    first.getPlanner().filter("minplayers>=2");
+    first.close();
+    Session second = manager.open();
+    second.getPlanner().filter("minplayers>=3");
+    second.close();
+    assertEquals(2, manager.getLiveCount());
+
+    manager.get(first.getId()).close(); // first is now the most recently used
+    Session third = manager.open();
+    third.getPlanner().filter("maxplayers==5");
+    third.close();
+    manager.evict();
+
+    // each filtered session is estimated at 896 bytes, so only two fit
+    assertTrue(manager.getEstimatedMemory() <= 2000);
+    assertEquals(2, manager.getLiveCount());
+    assertEquals(1, manager.getSpilledCount());
+    assertSame(first, manager.get(first.getId()));
+    assertSame(third, manager.get(third.getId()));
+
+    Session rebuilt = manager.get(second.getId());
+    assertNotSame(second, rebuilt);
+    assertEquals(1, rebuilt.getPlanner().getFilterDepth());
+  }
+
+  @Test
+  public void testLeasedSessionIsNotSpilled() {
+    TestClock clock = new TestClock();
+    SessionManager manager = new SessionManager(catalog(), 1000, Duration.ofMinutes(30),
+        clock);
+    Session busy = manager.open();
+    busy.getPlanner().filter("minplayers>=2");
+    try (Session other = manager.open()) {
+      other.getPlanner().filter("minplayers>=3");
+    }
+
+    // over budget and idle, but still in use by its first caller
+    clock.advance(Duration.ofMinutes(31));
+    manager.evict();
+    assertEquals(1, manager.getLiveCount());
+    assertEquals(1, manager.getSpilledCount());
+    assertSame(busy, manager.get(busy.getId()));
+
+    // two leases now: one close still leaves it in use
+    busy.close();
+    clock.advance(Duration.ofMinutes(31));
+    manager.evict();
+    assertEquals(1, manager.getLiveCount());
+
+    busy.close();
+    manager.evict();
+    assertEquals(0, manager.getLiveCount());
+    assertEquals(2, manager.getSpilledCount());
+  }
+
+  @Test
+  public void testSpilledSessionRebuiltOnNewCatalog() {
+    TestClock clock = new TestClock();
+    CatalogRegistry registry = new CatalogRegistry(catalog());
+    SessionManager manager = new SessionManager(registry, 1 << 20, Duration.ofMinutes(30),
+        clock);
+    Session session = manager.open();
+    session.getPlanner().filter("id<10");
+    session.getGameList().addToList("game 3", session.getPlanner().filter(""));
+    session.close();
+
+    clock.advance(Duration.ofMinutes(31));
+    manager.evict();
+    List<BoardGame> more = new ArrayList<>();
+    for (int i = -5; i < 0; i++) {
+      more.add(new BoardGame("New " + i, i, 2, 4, 30, 60, 2.0, 0, 6.0, 2024));
+    }
+    more.add(new BoardGame("Game 3", 3, 2, 4, 30, 60, 2.0, 0, 9.5, 2024));
+    registry.publish(new GameCatalog(more));
+
+    Session rebuilt = manager.get(session.getId());
+    assertEquals(6, rebuilt.getPlanner().getFilteredGames().size());
+    assertEquals(List.of("Game 3"), rebuilt.getGameList().getGameNames());
+    assertEquals(9.5, rebuilt.getPlanner().getFilteredGames().stream()
+        .filter(game -> game.getId() == 3).findFirst().get().getRating(), 1e-9);
+  }
+}
@@ -0,0 +1,96 @@
+import org.junit.jupiter.api.Test;
+import student.BoardGame;
+import student.GameData;
+import student.Planner;
+import student.SessionPlan;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * JUnit test for the SessionPacker class, through Planner.planSession.
+ */
+public class TestSessionPacker {
+
+  private static Set<BoardGame> games() {
+    Set<BoardGame> games = new HashSet<>();
+    games.add(new BoardGame("Long", 1, 2, 4, 100, 120, 3.0, 10, 9.0, 2000));
+    games.add(new BoardGame("Short A", 2, 2, 4, 30, 40, 1.0, 20, 6.0, 2000));
+    games.add(new BoardGame("Short B", 3, 2, 4, 30, 40, 1.0, 30, 5.5, 2000));
+    games.add(new BoardGame("Short C", 4, 2, 4, 30, 40, 1.0, 40, 5.0, 2000));
+    games.add(new BoardGame("Solo", 5, 1, 1, 10, 10, 1.0, 50, 9.9, 2000));
+    return games;
+  }
+
+  private static List<String> names(SessionPlan plan) {
+    return plan.stream().map(BoardGame::getName).collect(Collectors.toList());
+  }
+
+  @Test
+  public void testPackPrefersSeveralShorterGames() {
+    Planner planner = new Planner(games());
+    SessionPlan plan = planner.planSession(120, 2);
+
+    assertEquals(List.of("Short A", "Short B", "Short C"), names(plan));
+    assertEquals(120, plan.getMinutes());
+    assertEquals(16.5, plan.getTotalRating(), 1e-9);
+  }
+
+  @Test
+  public void testPackUsesMinimumPlayTime() {
+    Planner planner = new Planner(games());
+    SessionPlan plan = planner.planSession(160, 2, GameData.MIN_TIME);
+
+    assertEquals(List.of("Long", "Short A", "Short B"), names(plan));
+    assertEquals(160, plan.getMinutes());
+  }
+
+  @Test
+  public void testPackRespectsFilterAndPlayers() {
+    Planner planner = new Planner(games());
+    assertEquals(List.of("Solo"), names(planner.planSession(60, 1)));
+
+    planner.filter("name ~= short");
+    assertEquals(List.of("Short A"), names(planner.planSession(79, 2)));
+    assertTrue(planner.planSession(39, 2).getGames().isEmpty());
+    assertThrows(IllegalArgumentException.class, () -> planner.planSession(60, 0));
+  }
+
+  @Test
+  public void testPackMatchesBruteForce() {
+    Random random = new Random(5004);
+    Set<BoardGame> games = new HashSet<>();
+    for (int id = 0; id < 14; id++) {
+      int time = 5 + random.nextInt(90);
+      games.add(new BoardGame("g" + id, id, 1, 4, time, time, 2.0, id,
+          Math.round(random.nextDouble() * 100) / 10.0, 2000));
+    }
+    List<BoardGame> all = List.copyOf(games);
+    for (int budget : new int[] {0, 45, 90, 180, 300}) {
+      double best = 0;
+      for (int mask = 0; mask < 1 << all.size(); mask++) {
+        int minutes = 0;
+        double rating = 0;
+        for (int i = 0; i < all.size(); i++) {
+          if ((mask & 1 << i) != 0) {
+            minutes += all.get(i).getMaxPlayTime();
+            rating += all.get(i).getRating();
+          }
+        }
+        if (minutes <= budget) {
+          best = Math.max(best, rating);
+        }
+      }
+      SessionPlan plan = new Planner(games).planSession(budget, 2);
+      assertEquals(best, plan.getTotalRating(), 1e-9);
+      assertTrue(plan.getMinutes() <= budget);
+    }
+  }
+}
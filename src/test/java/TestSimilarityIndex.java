@@ -0,0 +1,160 @@
+import org.junit.jupiter.api.Test;
+import student.BoardGame;
+import student.GameCatalog;
+import student.Planner;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * JUnit test for the SimilarityIndex class, through GameCatalog and Planner.
+ */
+public class TestSimilarityIndex {
+
+  private static Set<BoardGame> games() {
+    Set<BoardGame> games = new HashSet<>();
+    games.add(new BoardGame("Heavy Euro", 1, 1, 4, 90, 120, 3.8, 10, 8.2, 2015));
+    games.add(new BoardGame("Heavier Euro", 2, 1, 4, 100, 150, 4.0, 20, 8.0, 2017));
+    games.add(new BoardGame("Party Game", 3, 4, 10, 15, 20, 1.2, 30, 6.5, 2010));
+    games.add(new BoardGame("Party Sequel", 4, 4, 12, 15, 25, 1.3, 40, 6.8, 2012));
+    games.add(new BoardGame("Old Classic", 5, 2, 2, 30, 60, 2.5, 50, 7.0, 1965));
+    return games;
+  }
+
+  private static List<String> names(List<BoardGame> games) {
+    return games.stream().map(BoardGame::getName).collect(Collectors.toList());
+  }
+
+  private static BoardGame byName(Set<BoardGame> games, String name) {
+    return games.stream().filter(game -> game.getName().equals(name)).findFirst().get();
+  }
+
+  @Test
+  public void testSimilarToFindsClosestGames() {
+    Set<BoardGame> games = games();
+    Planner planner = new Planner(games);
+
+    assertEquals(List.of("Heavier Euro"),
+        names(planner.similarTo(byName(games, "Heavy Euro"), 1, false)));
+    assertEquals(List.of("Party Sequel", "Old Classic"),
+        names(planner.similarTo(byName(games, "Party Game"), 2, false)));
+    assertEquals(4, planner.similarTo(byName(games, "Party Game"), 10, false).size());
+    assertTrue(planner.similarTo(byName(games, "Party Game"), 0, false).isEmpty());
+  }
+
+  @Test
+  public void testSimilarToWithinFilter() {
+    Set<BoardGame> games = games();
+    Planner planner = new Planner(games);
+    planner.filter("name ~= euro");
+
+    List<BoardGame> similar = planner.similarTo(byName(games, "Party Game"), 3, true);
+    assertEquals(List.of("Heavy Euro", "Heavier Euro"), names(similar));
+    assertFalse(planner.similarTo(byName(games, "Party Game"), 3, false).isEmpty());
+  }
+
+  @Test
+  public void testSimilarToGameOutsideCatalog() {
+    Planner planner = new Planner(games());
+    BoardGame query = new BoardGame("New Party", 99, 4, 10, 15, 20, 1.2, 0, 6.6, 2011);
+
+    assertEquals(List.of("Party Game"), names(planner.similarTo(query, 1, false)));
+  }
+
+  @Test
+  public void testSimilarToRejectsNegativeCount() {
+    Set<BoardGame> games = games();
+    Planner planner = new Planner(games);
+    assertThrows(IllegalArgumentException.class,
+        () -> planner.similarTo(byName(games, "Party Game"), -1, false));
+  }
+
+  @Test
+  public void testSimilarToZeroCount() {
+    List<BoardGame> games = new ArrayList<>();
+    for (int i = 0; i < 800; i++) {
+      games.add(new BoardGame("Game " + i, i, 2, 4, 30, 60, 2.0, i, 7.0, 2000 + i % 20));
+    }
+    GameCatalog catalog = new GameCatalog(games);
+    BitSet narrow = new BitSet();
+    narrow.set(1, 4);
+
+    // a narrow filter is scanned, a wide one searched through the tree
+    assertTrue(catalog.similarTo(games.get(0), 0, narrow).isEmpty());
+    assertTrue(catalog.similarTo(games.get(0), 0, null).isEmpty());
+  }
+
+  @Test
+  public void testSimilarToMatchesPairwiseScan() {
+    Random random = new Random(33);
+    List<BoardGame> games = new ArrayList<>();
+    for (int i = 0; i < 2000; i++) {
+      int minPlayers = 1 + random.nextInt(4);
+      int minTime = 10 + random.nextInt(120);
+      games.add(new BoardGame("Game " + i, i, minPlayers, minPlayers + random.nextInt(6),
+          minTime, minTime + random.nextInt(120), 1 + random.nextDouble() * 4, i,
+          4 + random.nextDouble() * 5, 1950 + random.nextInt(75)));
+    }
+    GameCatalog catalog = new GameCatalog(games);
+    double[][] features = features(games);
+
+    for (int q = 0; q < 50; q++) {
+      int query = random.nextInt(games.size());
+      List<BoardGame> expected = new ArrayList<>(games);
+      expected.remove(query);
+      expected.sort(Comparator.comparingDouble(
+          game -> distance(features[query], features[game.getId()])));
+
+      List<BoardGame> similar = catalog.similarTo(games.get(query), 10, null);
+      assertEquals(10, similar.size());
+      for (int i = 0; i < 10; i++) {
+        assertEquals(distance(features[query], features[expected.get(i).getId()]),
+            distance(features[query], features[similar.get(i).getId()]), 1e-12);
+      }
+    }
+  }
+
+  /**
+   * Normalizes the features the same way the index does, for a plain pairwise
+   * scan to compare against.
+   */
+  private static double[][] features(List<BoardGame> games) {
+    double[][] features = new double[games.size()][];
+    for (BoardGame game : games) {
+      features[game.getId()] = new double[] {game.getRating(), game.getDifficulty(),
+          game.getMinPlayers(), game.getMaxPlayers(), Math.log1p(game.getMinPlayTime()),
+          Math.log1p(game.getMaxPlayTime()), game.getYearPublished()};
+    }
+    for (int d = 0; d < 7; d++) {
+      double min = Double.POSITIVE_INFINITY;
+      double max = Double.NEGATIVE_INFINITY;
+      for (double[] feature : features) {
+        min = Math.min(min, feature[d]);
+        max = Math.max(max, feature[d]);
+      }
+      for (double[] feature : features) {
+        feature[d] = (feature[d] - min) / (max - min);
+      }
+    }
+    return features;
+  }
+
+  private static double distance(double[] a, double[] b) {
+    double sum = 0;
+    for (int d = 0; d < a.length; d++) {
+      sum += (a[d] - b[d]) * (a[d] - b[d]);
+    }
+    return sum;
+  }
+}
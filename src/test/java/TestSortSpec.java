@@ -0,0 +1,43 @@
+import org.junit.jupiter.api.Test;
+import student.GameData;
+import student.SortSpec;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * JUnit test for the SortSpec class.
+ */
+public class TestSortSpec {
+
+  @Test
+  public void testParse() {
+    SortSpec spec = SortSpec.parse("rating desc, name ASC,  minplayers ");
+    assertEquals(3, spec.size());
+    assertEquals(GameData.RATING, spec.getColumn(0));
+    assertFalse(spec.isAscending(0));
+    assertEquals(GameData.NAME, spec.getColumn(1));
+    assertTrue(spec.isAscending(1));
+    assertEquals(GameData.MIN_PLAYERS, spec.getColumn(2));
+    assertTrue(spec.isAscending(2));
+  }
+
+  @Test
+  public void testToStringParsesBack() {
+    SortSpec spec = SortSpec.of(GameData.YEAR, false).then(GameData.MAX_TIME, true);
+    assertEquals("year desc, max_time asc", spec.toString());
+    assertEquals(spec, SortSpec.parse(spec.toString()));
+    assertEquals(spec.hashCode(), SortSpec.parse(spec.toString()).hashCode());
+  }
+
+  @Test
+  public void testParseInvalid() {
+    assertThrows(IllegalArgumentException.class, () -> SortSpec.parse(""));
+    assertThrows(IllegalArgumentException.class, () -> SortSpec.parse("rating,"));
+    assertThrows(IllegalArgumentException.class, () -> SortSpec.parse("rating down"));
+    assertThrows(IllegalArgumentException.class, () -> SortSpec.parse("rating desc name"));
+    assertThrows(IllegalArgumentException.class, () -> SortSpec.parse("colour"));
+  }
+}